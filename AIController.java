@@ -0,0 +1,320 @@
+package game;
+
+import java.util.Random;
+
+import game.entities.Player;
+
+/**
+ * AIController - queue-based bot (was an inner class of GamePanel).
+ * Generates a short FIFO plan of commands and turns it into one InputSnapshot per tick.
+ * Works for either side: give it the player it controls and the one it fights.
+ *
+ * - a command is one int: opcode | hold ticks | direction (see command()), queued in a fixed int ring,
+ *   so thinking and playing a plan allocate nothing
+ * - the bot sees its target through a reaction delay: think() uses where the target was and whether it
+ *   was attacking Difficulty.reactionTicks ago
+ * - HARD hands each decision to a MonteCarloPlanner instead and plays its answer a tick later;
+ *   if the last search hasn't finished yet it falls back to the hand-tuned plan
+ */
+public class AIController {
+
+    /** How quickly the bot reacts and how often it re-plans (-Dgame.ai=easy|normal|hard picks the default). */
+    public enum Difficulty {
+        EASY(20, 14, 8, 0.35, false),
+        NORMAL(10, 8, 6, 0.6, false),
+        HARD(4, 4, 3, 0.85, true);
+
+        final int reactionTicks;   // how old the target state think() sees is
+        final int thinkTicks;      // ticks between two plans ...
+        final int thinkJitter;     // ... plus 0..jitter-1, to avoid a robotic rhythm
+        final double defendChance; // chance to react to an attack it has seen
+        final boolean search;      // decide with MonteCarloPlanner rollouts
+
+        Difficulty(int reactionTicks, int thinkTicks, int thinkJitter, double defendChance, boolean search) {
+            this.reactionTicks = reactionTicks;
+            this.thinkTicks = thinkTicks;
+            this.thinkJitter = thinkJitter;
+            this.defendChance = defendChance;
+            this.search = search;
+        }
+
+        static Difficulty fromProperty() {
+            String name = System.getProperty("game.ai", "normal");
+            for (Difficulty d : values()) {
+                if (d.name().equalsIgnoreCase(name)) return d;
+            }
+            System.out.println("Unknown AI difficulty " + name + ", using NORMAL");
+            return NORMAL;
+        }
+    }
+
+    public static final Difficulty DEFAULT_DIFFICULTY = Difficulty.fromProperty();
+
+    // ===== opcodes =====
+    static final int OP_NONE = 0;
+    static final int OP_MOVE_CLOSER = 1;
+    static final int OP_BACK_AWAY = 2;
+    static final int OP_ATTACK = 3;      // basic, or skill1 when basic is cooling down
+    static final int OP_SKILL2 = 4;
+    static final int OP_JUMP = 5;
+    static final int OP_DODGE = 6;       // dodge + a direction (the dodge key of either side)
+    static final int OP_WAIT = 7;        // hold nothing
+    static final int OP_BASIC = 8;
+    static final int OP_SKILL1 = 9;
+    static final int OP_CROUCH = 10;
+
+    // directions, relative to the target
+    static final int DIR_NONE = 0;
+    static final int DIR_TOWARD = 1;
+    static final int DIR_AWAY = 2;
+
+    // command layout: bits 0-7 opcode, 8-15 hold ticks, 16-17 direction
+    static int command(int op, int ticks, int dir) {
+        return op | (ticks << 8) | (dir << 16);
+    }
+
+    static int opOf(int command) { return command & 0xFF; }
+    static int ticksOf(int command) { return (command >>> 8) & 0xFF; }
+    static int dirOf(int command) { return (command >>> 16) & 0x3; }
+
+    // ===== plan: fixed ring of commands =====
+    private static final int QUEUE_SIZE = 16; // power of two; a plan is at most 4 commands
+    private final int[] queue = new int[QUEUE_SIZE];
+    private int queueHead = 0;
+    private int queueCount = 0;
+
+    // command being played and how many more ticks it is held
+    private int current = OP_NONE;
+    private int currentTicks = 0;
+
+    // ===== reaction delay: what the target did over the last DELAY_SIZE ticks =====
+    private static final int DELAY_SIZE = 32; // power of two, > any reactionTicks
+    private final int[] seenX = new int[DELAY_SIZE];
+    private final boolean[] seenAttacking = new boolean[DELAY_SIZE];
+    private int observed = 0; // ticks observed so far
+
+    private final Player ai;        // controlled player (player2 in GamePanel)
+    private final Player target;    // target player
+    private final Random rng;
+    private final Difficulty difficulty;
+    private final MonteCarloPlanner planner; // HARD only
+    private int arenaWidth = 800;
+
+    // buttons the AI held last tick (for pressed/released edges)
+    private int previousHeld = InputSnapshot.NONE;
+
+    // decision timing
+    private int framesUntilNextThink = 0;
+
+    public AIController(Player ai, Player target) {
+        this(ai, target, new Random());
+    }
+
+    /** Seeded constructor for reproducible batch matches. */
+    public AIController(Player ai, Player target, Random rng) {
+        this(ai, target, rng, DEFAULT_DIFFICULTY);
+    }
+
+    public AIController(Player ai, Player target, Random rng, Difficulty difficulty) {
+        this.ai = ai;
+        this.target = target;
+        this.rng = rng;
+        this.difficulty = difficulty;
+        this.planner = difficulty.search ? new MonteCarloPlanner(rng.nextLong()) : null;
+    }
+
+    /** Arena width for the planner's rollouts (GamePanel's 800 unless told otherwise). */
+    public void setArenaWidth(int arenaWidth) {
+        this.arenaWidth = arenaWidth;
+    }
+
+    // watch the target every tick, maybe create new high-level commands (not every frame)
+    public void maybeThink() {
+        observe();
+
+        if (planner != null) {
+            int action = planner.poll();
+            if (action >= 0) play(action);
+        }
+
+        if (framesUntilNextThink > 0) {
+            framesUntilNextThink--;
+            return;
+        }
+
+        think();
+        // add small random jitter to avoid robotic rhythm
+        framesUntilNextThink = difficulty.thinkTicks + rng.nextInt(difficulty.thinkJitter);
+    }
+
+    private void observe() {
+        int i = observed & (DELAY_SIZE - 1);
+        seenX[i] = target.getX();
+        seenAttacking[i] = target.isAttacking();
+        observed++;
+    }
+
+    // index of the observation reactionTicks old (or the oldest one we have)
+    private int delayed() {
+        if (observed == 0) observe();
+        int age = Math.min(difficulty.reactionTicks, observed - 1);
+        return (observed - 1 - age) & (DELAY_SIZE - 1);
+    }
+
+    // Decide a small plan and enqueue commands (FIFO). The command being held keeps playing.
+    void think() {
+        int seen = delayed();
+
+        // HARD: search instead; the answer comes back through poll() next tick
+        if (planner != null && planner.request(ai, target, seenX[seen], seenAttacking[seen], arenaWidth)) return;
+
+        queueCount = 0; // we produce fresh short plans each think
+
+        int targetX = seenX[seen];
+        int distance = Math.abs(ai.getX() - targetX);
+
+        // If low HP, occasionally back off
+        if (ai.getHealth() < ai.getMaxHealth() * 0.25 && rng.nextDouble() < 0.6) {
+            enqueue(command(OP_BACK_AWAY, 6, DIR_NONE));
+            // sometimes jump/back + wait
+            if (rng.nextDouble() < 0.35) enqueue(command(OP_JUMP, 1, DIR_NONE));
+            return;
+        }
+
+        // Movement decisions
+        if (distance > 170) {
+            // far: move closer
+            enqueue(command(OP_MOVE_CLOSER, 4, DIR_NONE));
+            // occasionally do a short run then attack
+            if (rng.nextDouble() < 0.5 && distance < 260) enqueue(command(OP_ATTACK, 1, DIR_NONE));
+        } else if (distance < 70) {
+            // too close: back away + maybe hop
+            enqueue(command(OP_BACK_AWAY, 3, DIR_NONE));
+            if (rng.nextDouble() < 0.35) enqueue(command(OP_JUMP, 1, DIR_NONE));
+        } else {
+            // in mid-range: choose aggression or bait
+            double roll = rng.nextDouble();
+            if (roll < 0.15 && ai.getCooldownRemainingSeconds(3) == 0) {
+                enqueue(command(OP_SKILL2, 1, DIR_NONE));
+            } else if (roll < 0.65) {
+                enqueue(command(OP_ATTACK, 1, DIR_NONE));
+            } else {
+                // fake: step forward, pause, step back
+                enqueue(command(OP_MOVE_CLOSER, 3, DIR_NONE));
+                enqueue(command(OP_WAIT, 2, DIR_NONE));
+                enqueue(command(OP_BACK_AWAY, 3, DIR_NONE));
+            }
+        }
+
+        // Defensive: if the target was seen attacking, dodge away, jump or back off sometimes
+        if (seenAttacking[seen] && rng.nextDouble() < difficulty.defendChance) {
+            double roll = rng.nextDouble();
+            if (roll < 0.4 && ai.getCooldownRemainingSeconds(4) == 0) {
+                enqueue(command(OP_DODGE, 1, DIR_AWAY));
+            } else if (roll < 0.75) {
+                enqueue(command(OP_JUMP, 1, DIR_NONE));
+            } else {
+                enqueue(command(OP_BACK_AWAY, 4, DIR_NONE));
+            }
+        }
+    }
+
+    // a planner decision replaces whatever was planned or held
+    private void play(int action) {
+        queueCount = 0;
+        currentTicks = 0;
+        switch (action) {
+            case RolloutModel.A_TOWARD: enqueue(command(OP_MOVE_CLOSER, 6, DIR_NONE)); break;
+            case RolloutModel.A_AWAY:   enqueue(command(OP_BACK_AWAY, 6, DIR_NONE)); break;
+            case RolloutModel.A_JUMP:   enqueue(command(OP_JUMP, 1, DIR_NONE)); break;
+            case RolloutModel.A_CROUCH: enqueue(command(OP_CROUCH, 6, DIR_NONE)); break;
+            case RolloutModel.A_DODGE:  enqueue(command(OP_DODGE, 1, DIR_AWAY)); break;
+            case RolloutModel.A_BASIC:  enqueue(command(OP_BASIC, 1, DIR_NONE)); break;
+            case RolloutModel.A_SKILL1: enqueue(command(OP_SKILL1, 1, DIR_NONE)); break;
+            case RolloutModel.A_SKILL2: enqueue(command(OP_SKILL2, 1, DIR_NONE)); break;
+            default:                    enqueue(command(OP_WAIT, 6, DIR_NONE)); break;
+        }
+    }
+
+    private void enqueue(int command) {
+        if (queueCount == QUEUE_SIZE) return; // plans are short, never happens
+        queue[(queueHead + queueCount) & (QUEUE_SIZE - 1)] = command;
+        queueCount++;
+    }
+
+    // Turn the current command into this tick's InputSnapshot for the controlled player.
+    // A command is held for its tick count, then the next one is taken from the queue.
+    public int nextInput() {
+        if (currentTicks == 0 && queueCount > 0) {
+            current = queue[queueHead];
+            currentTicks = ticksOf(current);
+            queueHead = (queueHead + 1) & (QUEUE_SIZE - 1);
+            queueCount--;
+        }
+
+        int held = InputSnapshot.NONE;
+        if (currentTicks > 0) {
+            held = commandButtons(current);
+            currentTicks--;
+        }
+
+        int snapshot = InputSnapshot.of(held, previousHeld);
+        previousHeld = held;
+        return snapshot;
+    }
+
+    private int commandButtons(int cmd) {
+        switch (opOf(cmd)) {
+            case OP_MOVE_CLOSER:
+                return toward();
+            case OP_BACK_AWAY:
+                return away();
+            case OP_ATTACK:
+                // preferentially use basic attack; if basic on cooldown, try skill1
+                int remainingBasic = ai.getCooldownRemainingSeconds(1);
+                int remainingSkill1 = ai.getCooldownRemainingSeconds(2);
+                if (remainingBasic == 0) {
+                    return InputSnapshot.BASIC;
+                } else if (remainingSkill1 == 0 && rng.nextDouble() < 0.5) {
+                    return InputSnapshot.SKILL1;
+                }
+                // fallback: still press basic (will be ignored if cooldown)
+                return InputSnapshot.BASIC;
+            case OP_BASIC:
+                return InputSnapshot.BASIC;
+            case OP_SKILL1:
+                return InputSnapshot.SKILL1;
+            case OP_SKILL2:
+                return InputSnapshot.SKILL2;
+            case OP_CROUCH:
+                return InputSnapshot.DOWN;
+            case OP_JUMP:
+                return InputSnapshot.UP;
+            case OP_DODGE:
+                int dir = dirOf(cmd);
+                if (dir == DIR_AWAY) return InputSnapshot.DODGE | away();
+                if (dir == DIR_TOWARD) return InputSnapshot.DODGE | toward();
+                return InputSnapshot.DODGE;
+            default:
+                return InputSnapshot.NONE;
+        }
+    }
+
+    // directions from where the bot last saw its target
+    private int toward() {
+        return ai.getX() < seenX[delayed()] ? InputSnapshot.RIGHT : InputSnapshot.LEFT;
+    }
+
+    private int away() {
+        return ai.getX() < seenX[delayed()] ? InputSnapshot.LEFT : InputSnapshot.RIGHT;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /** HARD's planner, or null. */
+    public MonteCarloPlanner getPlanner() {
+        return planner;
+    }
+}
@@ -1,13 +1,15 @@
 package game;
 
 import java.awt.Graphics;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import javax.imageio.ImageIO;
 
 /**
  * Handles weapon attack animations for Katana, Axe, Scythe.
  * Player only calls setAttack(type) and draw().
+ * Frames come from SpriteRepository (loaded once at startup).
+ * Frames advance with the match's GameClock (ticks), not the wall clock.
+ *
+ * Player builds its controller itself, so MatchSimulation picks it up with takeLastCreated() right
+ * after creating each Player; HitResolver then reads the frame being drawn from it.
  */
 
 public class AnimationController {
@@ -15,76 +17,83 @@ public class AnimationController {
     private String weaponType;
     private int attackType = 0;
 
-    private BufferedImage[] frames;
+    private SpriteAtlas.Frame[] frames;
     private int frameIndex = 0;
-    private long lastFrameTime = 0;
+    private long startTick = 0;
 
-    private final int frameSpeed = 60; // ms per frame
+    static final int FRAME_MS = 60; // ms per frame
 
+    private final GameClock clock;
+
+    // last controller built on this thread, see takeLastCreated()
+    private static final ThreadLocal<AnimationController> LAST_CREATED = new ThreadLocal<>();
+
+    /** On the clock of the match being built (GameClock.current()). */
     public AnimationController(String weaponType) {
-        this.weaponType = weaponType;
+        this(weaponType, GameClock.current());
     }
 
-    public void setWeapon(String weapon) {
-        this.weaponType = weapon;
+    public AnimationController(String weaponType, GameClock clock) {
+        this.weaponType = weaponType;
+        this.clock = clock;
+        LAST_CREATED.set(this);
     }
 
-    /** Load frames for a specific attack **/
-    private void loadFrames(int attackType) {
-        try {
-            String base = "/game/sprites/weapons/" + weaponType + "/attack" + attackType;
-
-            File folder = new File(getClass().getResource(base).toURI());
-            File[] files = folder.listFiles((d, name) -> name.endsWith(".png"));
-
-            if (files == null || files.length == 0) {
-                System.out.println("No frames found: " + base);
-                frames = null;
-                return;
-            }
-
-            frames = new BufferedImage[files.length];
-
-            for (int i = 0; i < files.length; i++) {
-                frames[i] = ImageIO.read(files[i]);
-            }
+    /** The controller most recently built on this thread (null if none since the last call), and forgets it. */
+    static AnimationController takeLastCreated() {
+        AnimationController c = LAST_CREATED.get();
+        LAST_CREATED.remove();
+        return c;
+    }
 
-        } catch (Exception e) {
-            System.out.println("Error loading weapon animation: " + e.getMessage());
-            frames = null;
-        }
+    public void setWeapon(String weapon) {
+        this.weaponType = weapon;
     }
 
     /** Called by Player when an attack begins **/
     public void startAttack(int type) {
         this.attackType = type;
-        loadFrames(type);
+        this.frames = SpriteRepository.getAtlasFrames(weaponType, type); // preloaded, no I/O here
         this.frameIndex = 0;
-        this.lastFrameTime = System.currentTimeMillis();
+        this.startTick = clock.getTick();
     }
 
     /** Update animation frame **/
     public void update() {
         if (frames == null) return;
+        frameIndex = frameAt(clock.ticksSince(startTick), frames.length); // holds the last frame
+    }
+
+    public int getFrameIndex() {
+        return frameIndex;
+    }
+
+    public String getWeaponType() {
+        return weaponType;
+    }
 
-        long now = System.currentTimeMillis();
-        if (now - lastFrameTime >= frameSpeed) {
-            frameIndex++;
-            if (frameIndex >= frames.length) frameIndex = frames.length - 1; // hold last frame
-            lastFrameTime = now;
-        }
+    /** Attack type of the last startAttack(), 0 before the first. */
+    public int getAttackType() {
+        return attackType;
+    }
+
+    /** False while nothing is drawn (no attack yet, or no sprites for it). */
+    public boolean hasFrames() {
+        return frames != null && frames.length > 0;
+    }
+
+    /** Frame shown elapsedTicks into an attack of frameCount frames (the last one is held). */
+    static int frameAt(long elapsedTicks, int frameCount) {
+        if (frameCount <= 0) return 0;
+        long elapsedMs = elapsedTicks * 1000 / GameClock.TICK_RATE;
+        return (int) Math.min(elapsedMs / FRAME_MS, frameCount - 1);
     }
 
     /** Draw weapon animation **/
     public void draw(Graphics g, int x, int y, int facingDir) {
         if (frames == null) return;
 
-        BufferedImage f = frames[frameIndex];
-
-        if (facingDir == -1) {
-            g.drawImage(f, x + f.getWidth(), y, -f.getWidth(), f.getHeight(), null);
-        } else {
-            g.drawImage(f, x, y, null);
-        }
+        // mirrored frames are pre-baked in the atlas, both directions are a plain sub-rect blit
+        frames[frameIndex].draw(g, x, y, facingDir);
     }
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package game;
+
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+
+/**
+ * AssetRegistry - every image and sound the game needs, loaded once at startup.
+ *
+ * - preloadAll() (Main) queues the backgrounds, the sfx and the weapon sprites on a bounded
+ *   "asset-load" pool and returns at once, so the menu shows while the rest decodes
+ * - backgrounds are converted to the screen's opaque format, sprites by SpriteRepository, sounds by AudioEngine
+ * - image(path) returns the shared copy; a panel asking before it's decoded waits for that image
+ *   only (the menu background is queued first), an image nobody preloaded is loaded on the spot
+ *
+ * Startup timings go to StartupMetrics.
+ */
+public final class AssetRegistry {
+
+    public static final String MENU_BG = "/game/assets/backgrounds/menu_bg.png";
+    public static final String CHARACTER_BG = "/game/assets/backgrounds/character_bg.png";
+    public static final String BATTLE_BG = "/game/assets/backgrounds/battle_bg.png";
+
+    public static final String SFX_CLICK = "/game/assets/sfx/click.wav";
+    public static final String SFX_BEEP = "/game/assets/sfx/beep.wav";
+    public static final String SFX_FIGHT = "/game/assets/sfx/fahh.wav";
+
+    // in the order they are needed: menu first
+    private static final String[] BACKGROUNDS = {MENU_BG, CHARACTER_BG, BATTLE_BG};
+    private static final String[] SFX = {SFX_CLICK, SFX_BEEP, SFX_FIGHT};
+
+    static final int THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(THREADS, r -> {
+        Thread t = new Thread(r, "asset-load-" + threadCount.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final Map<String, Future<BufferedImage>> images = new ConcurrentHashMap<>();
+    private static volatile boolean started = false;
+
+    private AssetRegistry() {}
+
+    /** Starts decoding everything in the background (safe to call more than once). */
+    public static synchronized void preloadAll() {
+        if (started) return;
+        started = true;
+        long start = System.nanoTime();
+
+        for (String path : BACKGROUNDS) load(path);
+        SoundPlayer.preload(SFX);
+        Future<?> sprites = SpriteRepository.preloadAsync();
+
+        // report when the last of it is in (off the pool: it only waits)
+        Thread watcher = new Thread(() -> {
+            for (String path : BACKGROUNDS) await(images.get(path), path);
+            await(sprites, "sprites");
+            StartupMetrics.assetsReady(System.nanoTime() - start);
+        }, "asset-watch");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /** The bounded pool decodes run on (SpriteRepository shares it). */
+    static ExecutorService pool() {
+        return POOL;
+    }
+
+    /** Shared, display-compatible copy of an image, or null if it can't be read. Blocks until decoded. */
+    public static BufferedImage image(String path) {
+        return await(load(path), path);
+    }
+
+    private static Future<BufferedImage> load(String path) {
+        return images.computeIfAbsent(path, p -> POOL.submit(() -> decode(p)));
+    }
+
+    private static <T> T await(Future<T> future, String what) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.out.println("Error loading " + what + ": " + e.getCause());
+        }
+        return null;
+    }
+
+    private static BufferedImage decode(String path) {
+        try (InputStream in = AssetRegistry.class.getResourceAsStream(path)) {
+            if (in == null) {
+                System.out.println("Missing asset: " + path);
+                return null;
+            }
+            BufferedImage raw = ImageIO.read(in);
+            return raw == null ? null : SpriteRepository.toCompatible(raw, Transparency.OPAQUE);
+        } catch (IOException e) {
+            System.out.println("Error loading " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package game;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.sound.sampled.*;
+
+/**
+ * AudioEngine:
+ * - every sound is decoded once into 16-bit stereo PCM at MIX_RATE and kept in memory
+ * - each sound has a small fixed pool of voices; when all are busy the oldest one is restarted
+ * - one mixer thread sums active voices into a single SourceDataLine
+ *
+ * play() never blocks: it only offers a request to the mixer queue
+ * (or schedules a background decode the first time a sound is used).
+ */
+public final class AudioEngine {
+
+    private static final float MIX_RATE = 44100f;
+    private static final AudioFormat MIX_FORMAT = new AudioFormat(MIX_RATE, 16, 2, true, false);
+    private static final int MIX_FRAMES = 256;        // ~6 ms per mix buffer
+    private static final int VOICES_PER_SOUND = 4;
+
+    // queue marker for stopAll()
+    private static final Sound STOP_ALL = new Sound(new short[0]);
+
+    private static final AudioEngine INSTANCE = new AudioEngine();
+
+    /** Decoded sound + its voice pool (voices are only touched by the mixer thread). */
+    private static final class Sound {
+        final short[] samples;              // interleaved L/R
+        final int[] voicePos = new int[VOICES_PER_SOUND]; // sample index, -1 = idle
+        volatile long requestedAt;          // last play() time, for the AUDIO_START metric
+
+        Sound(short[] samples) {
+            this.samples = samples;
+            Arrays.fill(voicePos, -1);
+        }
+    }
+
+    private final Map<String, Sound> sounds = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> decoding = new ConcurrentHashMap<>();
+    private final ArrayBlockingQueue<Sound> requests = new ArrayBlockingQueue<>(64);
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "audio-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Sound[] active = new Sound[64];  // sounds with at least one busy voice (mixer thread only)
+    private int activeCount = 0;
+
+    private SourceDataLine line;
+    private volatile boolean running = false;
+
+    private AudioEngine() {
+        try {
+            line = AudioSystem.getSourceDataLine(MIX_FORMAT);
+            line.open(MIX_FORMAT, MIX_FRAMES * 4 * 4); // 4 mix buffers of latency
+            line.start();
+            running = true;
+
+            Thread mixer = new Thread(this::mixLoop, "audio-mixer");
+            mixer.setDaemon(true);
+            mixer.setPriority(Thread.MAX_PRIORITY);
+            mixer.start();
+        } catch (Exception e) {
+            // no audio device (headless box, CI): every call becomes a no-op
+            System.out.println("Audio disabled: " + e.getMessage());
+            line = null;
+        }
+    }
+
+    public static AudioEngine get() {
+        return INSTANCE;
+    }
+
+    /** Decodes sounds in the background so the first play() doesn't wait for a decode. */
+    public void preload(String... paths) {
+        for (String path : paths) decodeAsync(path, false);
+    }
+
+    /** Non-blocking: queue the sound for the mixer. Dropped if the queue is full or audio is off. */
+    public void play(String path) {
+        if (!running) return;
+
+        Sound sound = sounds.get(path);
+        if (sound == null) {
+            decodeAsync(path, true); // play as soon as it is decoded
+            return;
+        }
+        sound.requestedAt = System.nanoTime();
+        requests.offer(sound);
+    }
+
+    /** Silences every voice (scene changes). */
+    public void stopAll() {
+        requests.clear();
+        requests.offer(STOP_ALL);
+    }
+
+    // =========================
+    //          DECODE
+    // =========================
+    private void decodeAsync(String path, boolean playWhenReady) {
+        if (decoding.putIfAbsent(path, Boolean.TRUE) != null) return;
+
+        loader.execute(() -> {
+            Sound sound = decode(path);
+            if (sound == null) return;
+            sounds.put(path, sound);
+            if (playWhenReady && running) {
+                sound.requestedAt = System.nanoTime();
+                requests.offer(sound);
+            }
+        });
+    }
+
+    private static Sound decode(String path) {
+        URL url = AudioEngine.class.getResource(path);
+        if (url == null) {
+            System.out.println("Missing sound: " + path);
+            return null;
+        }
+
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(url)) {
+            AudioFormat src = source.getFormat();
+            AudioFormat pcmFormat = new AudioFormat(src.getSampleRate(), 16, src.getChannels(), true, false);
+
+            try (AudioInputStream pcm = AudioSystem.getAudioInputStream(pcmFormat, source)) {
+                short[] raw = toShorts(readAll(pcm));
+                return new Sound(toMixFormat(raw, src.getChannels(), src.getSampleRate()));
+            }
+        } catch (Exception e) {
+            System.out.println("Error decoding sound " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        int n;
+        while ((n = in.read(buf)) > 0) out.write(buf, 0, n);
+        return out.toByteArray();
+    }
+
+    private static short[] toShorts(byte[] bytes) {
+        short[] s = new short[bytes.length / 2];
+        for (int i = 0; i < s.length; i++) {
+            s[i] = (short) ((bytes[i * 2] & 0xff) | (bytes[i * 2 + 1] << 8));
+        }
+        return s;
+    }
+
+    // mono/stereo at any rate -> interleaved stereo at MIX_RATE (linear resample)
+    private static short[] toMixFormat(short[] raw, int channels, float rate) {
+        int srcFrames = raw.length / channels;
+        int dstFrames = (int) ((long) srcFrames * MIX_RATE / rate);
+        short[] out = new short[dstFrames * 2];
+
+        double step = rate / MIX_RATE;
+        for (int f = 0; f < dstFrames; f++) {
+            double pos = f * step;
+            int i0 = (int) pos;
+            int i1 = Math.min(i0 + 1, srcFrames - 1);
+            double t = pos - i0;
+
+            for (int c = 0; c < 2; c++) {
+                int sc = Math.min(c, channels - 1); // mono feeds both sides
+                double v = raw[i0 * channels + sc] * (1 - t) + raw[i1 * channels + sc] * t;
+                out[f * 2 + c] = (short) v;
+            }
+        }
+        return out;
+    }
+
+    // =========================
+    //          MIXER
+    // =========================
+    private void mixLoop() {
+        int[] mix = new int[MIX_FRAMES * 2];
+        byte[] out = new byte[MIX_FRAMES * 4];
+
+        while (running) {
+            // idle: sleep on the queue instead of streaming silence
+            if (activeCount == 0) {
+                try {
+                    Sound s = requests.poll(50, TimeUnit.MILLISECONDS);
+                    if (s != null) trigger(s);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+
+            Sound s;
+            while ((s = requests.poll()) != null) trigger(s);
+            if (activeCount == 0) continue;
+
+            Arrays.fill(mix, 0);
+            for (int a = activeCount - 1; a >= 0; a--) {
+                Sound sound = active[a];
+                boolean busy = false;
+
+                for (int v = 0; v < VOICES_PER_SOUND; v++) {
+                    int pos = sound.voicePos[v];
+                    if (pos < 0) continue;
+
+                    int n = Math.min(mix.length, sound.samples.length - pos);
+                    for (int i = 0; i < n; i++) mix[i] += sound.samples[pos + i];
+
+                    pos += n;
+                    sound.voicePos[v] = pos >= sound.samples.length ? -1 : pos;
+                    busy |= sound.voicePos[v] >= 0;
+                }
+
+                if (!busy) active[a] = active[--activeCount]; // swap-remove
+            }
+
+            for (int i = 0; i < mix.length; i++) {
+                int v = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+                out[i * 2] = (byte) v;
+                out[i * 2 + 1] = (byte) (v >> 8);
+            }
+            line.write(out, 0, out.length); // blocks at line pace
+        }
+    }
+
+    // start a voice for this sound, stealing the most-played one if the pool is full
+    private void trigger(Sound sound) {
+        if (sound == STOP_ALL) {
+            for (int a = 0; a < activeCount; a++) Arrays.fill(active[a].voicePos, -1);
+            activeCount = 0;
+            line.flush();
+            return;
+        }
+
+        int voice = -1;
+        int oldest = -1;
+        for (int v = 0; v < VOICES_PER_SOUND; v++) {
+            int pos = sound.voicePos[v];
+            if (pos < 0) { voice = v; break; }
+            if (oldest < 0 || pos > sound.voicePos[oldest]) oldest = v;
+        }
+        if (voice < 0) voice = oldest;
+
+        boolean wasIdle = true;
+        for (int v = 0; v < VOICES_PER_SOUND; v++) if (sound.voicePos[v] >= 0) wasIdle = false;
+
+        if (wasIdle) {
+            if (activeCount == active.length) return; // mixer full, drop
+            active[activeCount++] = sound;
+        }
+        sound.voicePos[voice] = 0;
+
+        // queue wait until the voice starts; its first samples go out in this mix buffer
+        if (sound.requestedAt != 0) Metrics.record(Metrics.AUDIO_START, System.nanoTime() - sound.requestedAt);
+    }
+}
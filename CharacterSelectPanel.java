@@ -3,51 +3,71 @@ package game;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.Random;
 
-public class CharacterSelectPanel extends JPanel implements MouseListener, MouseMotionListener {
+public class CharacterSelectPanel extends JPanel implements Scene, MouseListener, MouseMotionListener {
 
     private JFrame window;
     private Image backgroundImage;
-    p
 
     private boolean selectingP2 = false;
     private boolean vsAI = false;
+    private boolean waitingForSprites = false; // both picked, the match starts once the sprites are in
 
-    rivate LinkedList<CharacterOption> options = new LinkedList<>();   private String p1Choice = null;
+    private LinkedList<CharacterOption> options = new LinkedList<>();
+    private String p1Choice = null;
     private String p2Choice = null;
 
     private Font pixelFont = new Font("Monospaced", Font.BOLD, 28);
 
+    // scaled background + title, cached until the panel is resized or the title changes (P1 -> P2)
+    private final StaticLayerCache staticLayer = new StaticLayerCache(this::paintStaticLayer);
+
+    private static final Color TITLE_OUTLINE = new Color(0,0,0,180);
+
+    // option row layout (three weapons: boxes at x 120, 330, 540)
+    private static final int OPTION_SIZE = 150;
+    private static final int OPTION_GAP = 60;
+    private static final int OPTION_MARGIN = 20;
+    private static final int OPTION_Y = 260;
+
     public CharacterSelectPanel(JFrame window, boolean vsAI) {
         this.window = window;
         this.vsAI = vsAI;
 
         setPreferredSize(new Dimension(800,600));
 
-        backgroundImage = new ImageIcon(getClass().getResource("/game/assets/backgrounds/character_bg.png")).getImage();
+        // no-op if Main already started it; startMatch() waits for the sprites
+        AssetRegistry.preloadAll();
+
+        backgroundImage = AssetRegistry.image(AssetRegistry.CHARACTER_BG);
 
-        options.add(new CharacterOption("Katana", 120, 260, 150, 150));
-        options.add(new CharacterOption("Axe", 330, 260, 150, 150));
-        options.add(new CharacterOption("Scythe", 540, 260, 150, 150));
+        // one box per weapon in the move table, in a row centred on the panel (narrower if many)
+        String[] weapons = MoveTable.weaponNames();
+        int n = weapons.length;
+        int size = Math.min(OPTION_SIZE, (800 - 2 * OPTION_MARGIN - (n - 1) * OPTION_GAP) / n);
+        int rowWidth = n * size + (n - 1) * OPTION_GAP;
+        int x = (800 - rowWidth) / 2 + 5;
+        for (String weapon : weapons) {
+            options.add(new CharacterOption(weapon, x, OPTION_Y, size, size));
+            x += size + OPTION_GAP;
+        }
 
         addMouseListener(this);
         addMouseMotionListener(this);
     }
 
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        g.drawImage(backgroundImage, 0,0,getWidth(),getHeight(),this);
+    private void paintStaticLayer(Graphics2D g2, int width, int height) {
+        g2.drawImage(backgroundImage, 0, 0, width, height, null);
 
-        Graphics2D g2 = (Graphics2D) g;
         g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
         g2.setFont(pixelFont);
 
-        String title = !selectingP2 ? "SELECT CHARACTER — PLAYER 1" : "SELECT CHARACTER — PLAYER 2";
+        String title = waitingForSprites ? "LOADING..."
+                : !selectingP2 ? "SELECT CHARACTER — PLAYER 1" : "SELECT CHARACTER — PLAYER 2";
 
-        g2.setColor(new Color(0,0,0,180));
+        g2.setColor(TITLE_OUTLINE);
         g2.drawString(title, 128,118);
         g2.drawString(title, 132,118);
         g2.drawString(title, 130,116);
@@ -55,57 +75,86 @@ public class CharacterSelectPanel extends JPanel implements MouseListener, Mouse
 
         g2.setColor(Color.WHITE);
         g2.drawString(title,130,118);
+    }
 
-        for (CharacterOption opt : options) opt.draw(g2);
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        staticLayer.draw(g, getWidth(), getHeight());
+
+        // a hover repaint only covers the option that changed
+        Graphics2D g2 = (Graphics2D) g;
+        Rectangle clip = g.getClipBounds();
+        for (CharacterOption opt : options) {
+            if (clip == null || clip.intersects(opt.paintBounds)) opt.draw(g2);
+        }
     }
 
     @Override
     public void mouseClicked(MouseEvent e) {
+        if (waitingForSprites) return;
         int mx = e.getX();
         int my = e.getY();
 
         for (CharacterOption opt : options) {
             if (opt.contains(mx,my)) {
-                SoundPlayer.play("/game/assets/sfx/click.wav");
+                SoundPlayer.play(AssetRegistry.SFX_CLICK);
 
                 if (!selectingP2) {
                     p1Choice = opt.name;
 
                     if (vsAI) {
                         p2Choice = getRandomAIWeapon(p1Choice);
-                        GamePanel gp = new GamePanel(p1Choice, p2Choice, true);
-                        window.setContentPane(gp);
-                        window.revalidate();
-                        gp.requestFocusInWindow();
+                        startMatch(true);
                     } else {
                         selectingP2 = true;
+                        staticLayer.invalidate(); // title now says PLAYER 2
                         repaint();
                     }
 
                 } else {
                     p2Choice = opt.name;
-                    GamePanel gp = new GamePanel(p1Choice, p2Choice, false);
-                    window.setContentPane(gp);
-                    window.revalidate();
-                    gp.requestFocusInWindow();
+                    startMatch(false);
                 }
             }
         }
     }
 
+    // Hit tests use the sprite masks, so the match can't start before SpriteRepository is done:
+    // usually it is by now, otherwise the title says LOADING and a helper thread waits for it
+    private void startMatch(boolean ai) {
+        if (SpriteRepository.isLoaded()) {
+            SceneManager.show(window, new GamePanel(p1Choice, p2Choice, ai));
+            return;
+        }
+
+        waitingForSprites = true;
+        staticLayer.invalidate();
+        repaint();
+
+        Thread waiter = new Thread(() -> {
+            SpriteRepository.awaitLoaded();
+            SwingUtilities.invokeLater(() -> SceneManager.show(window, new GamePanel(p1Choice, p2Choice, ai)));
+        }, "sprite-wait");
+        waiter.setDaemon(true);
+        waiter.start();
+    }
+
+    private static final Random AI_PICK = new Random();
+
+    // any weapon from the move table except the one player 1 took
     private String getRandomAIWeapon(String p1Weapon) {
-        String[] weapons = {"Katana","Axe","Scythe"};
-        ArrayList<String> choices = new ArrayList<>();
-        for (String w : weapons) if (!w.equals(p1Weapon)) choices.add(w);
-        return choices.get((int)(Math.random()*choices.size()));
+        return MoveTable.randomWeaponExcept(p1Weapon, AI_PICK);
     }
 
     @Override
     public void mouseMoved(MouseEvent e) {
         int mx = e.getX();
         int my = e.getY();
-        for (CharacterOption opt : options) opt.setHover(opt.contains(mx,my));
-        repaint();
+        // repaint only options whose hover state flipped
+        for (CharacterOption opt : options) {
+            if (opt.setHover(opt.contains(mx,my))) repaint(opt.paintBounds);
+        }
     }
 
     // Unused
@@ -115,40 +164,52 @@ public class CharacterSelectPanel extends JPanel implements MouseListener, Mouse
     @Override public void mouseExited(MouseEvent e) {}
     @Override public void mouseDragged(MouseEvent e) {}
 
+    private static final GlyphAtlas OPTION_TEXT = GlyphAtlas.get("Monospaced", Font.BOLD, 20, Color.WHITE, false);
+    private static final Color OPTION_BOX = new Color(60,50,40,200);
+    private static final Color OPTION_HOVER = new Color(90,70,50,220);
+    private static final Color OPTION_BORDER = new Color(20,15,10);
+    private static final Color OPTION_SELECTED = new Color(255,220,80);
+    private static final BasicStroke SELECTED_STROKE = new BasicStroke(3);
+
     class CharacterOption {
         String name;
         Rectangle bounds;
+        Rectangle paintBounds; // bounds + the selection outline around them
         boolean hovered = false;
 
         public CharacterOption(String name,int x,int y,int w,int h){
             this.name = name;
             this.bounds = new Rectangle(x,y,w,h);
+            this.paintBounds = new Rectangle(x-4,y-4,w+8,h+8);
         }
 
         public void draw(Graphics2D g) {
-            g.setFont(new Font("Monospaced", Font.BOLD, 20));
-            Color boxColor = new Color(60,50,40,200);
-            Color hoverColor = new Color(90,70,50,220);
-            g.setColor(hovered ? hoverColor : boxColor);
+            g.setColor(hovered ? OPTION_HOVER : OPTION_BOX);
             g.fillRect(bounds.x,bounds.y,bounds.width,bounds.height);
 
-            g.setColor(new Color(20,15,10));
+            g.setColor(OPTION_BORDER);
             g.drawRect(bounds.x,bounds.y,bounds.width,bounds.height);
 
             if ((name.equals(p1Choice) && selectingP2) || (name.equals(p2Choice) && !selectingP2)){
-                g.setColor(new Color(255,220,80));
-                g.setStroke(new BasicStroke(3));
+                // restore the stroke: hover repaints only redraw one option, the next one must start at 1 px
+                Stroke previous = g.getStroke();
+                g.setColor(OPTION_SELECTED);
+                g.setStroke(SELECTED_STROKE);
                 g.drawRect(bounds.x-2,bounds.y-2,bounds.width+4,bounds.height+4);
+                g.setStroke(previous);
             }
 
-            g.setColor(Color.WHITE);
-            int textWidth = g.getFontMetrics().stringWidth(name);
-            int tx = bounds.x + (bounds.width - textWidth)/2;
+            int tx = bounds.x + (bounds.width - OPTION_TEXT.stringWidth(name))/2;
             int ty = bounds.y + bounds.height/2 + 8;
-            g.drawString(name,tx,ty);
+            OPTION_TEXT.drawString(g,name,tx,ty);
         }
 
         public boolean contains(int mx,int my){return bounds.contains(mx,my);}
-        public void setHover(boolean h){hovered = h;}
+        /** Returns true if the hover state flipped. */
+        public boolean setHover(boolean h){
+            if (hovered == h) return false;
+            hovered = h;
+            return true;
+        }
     }
 }
@@ -1,32 +1,37 @@
 package game;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 
+/**
+ * DamageText - draws one damage popup (storage lives in DamageTextPool).
+ * Fades out with age using pre-built composites, so drawing allocates nothing.
+ */
 public class DamageText {
-    private float x, y;
-    private final int damage;
-    private final long startTime;
-    private final long duration = 700; // ms
 
-    public DamageText(float x, float y, int damage) {
-        this.x = x;
-        this.y = y;
-        this.damage = damage;
-        this.startTime = System.currentTimeMillis();
-    }
+    private static final GlyphAtlas TEXT = GlyphAtlas.get("Consolas", Font.BOLD, 14, Color.YELLOW, true);
 
-    public void update() {
-        y -= 0.8f; // float upward
+    private static final int FADE_LEVELS = 32;
+    private static final AlphaComposite[] FADE = new AlphaComposite[FADE_LEVELS + 1];
+    static {
+        for (int i = 0; i <= FADE_LEVELS; i++) {
+            FADE[i] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, i / (float) FADE_LEVELS);
+        }
     }
 
-    public boolean isExpired() {
-        return System.currentTimeMillis() - startTime > duration;
-    }
+    private DamageText() {}
+
+    public static void draw(Graphics g, float x, float y, int damage, float alpha) {
+        Graphics2D g2 = (Graphics2D) g;
+        int level = Math.max(0, Math.min(FADE_LEVELS, Math.round(alpha * FADE_LEVELS)));
 
-    public void draw(Graphics g) {
-        // alpha not implemented simply — just draw yellow text
-        g.setColor(Color.YELLOW);
-        g.drawString(String.valueOf(damage), Math.round(x), Math.round(y));
+        Composite old = g2.getComposite();
+        g2.setComposite(FADE[level]);
+        TEXT.drawInt(g2, damage, Math.round(x), Math.round(y));
+        g2.setComposite(old);
     }
 }
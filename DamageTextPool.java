@@ -0,0 +1,81 @@
+package game;
+
+import java.awt.Graphics;
+
+/**
+ * DamageTextPool:
+ * - fixed-capacity ring buffer of damage popups, stored as primitive arrays (no object per hit)
+ * - every text lives the same number of ticks, so the oldest is always at the head
+ * - when full, a new hit overwrites the oldest popup
+ */
+public class DamageTextPool {
+
+    public static final int LIFETIME_TICKS = 42;     // 700 ms at 60 ticks/s
+    private static final float RISE_PER_TICK = 0.8f; // float upward
+
+    private final float[] x;
+    private final float[] y;
+    private final int[] damage;
+    private final int[] age;
+
+    private int head = 0;   // oldest live slot
+    private int count = 0;
+
+    public DamageTextPool(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        damage = new int[capacity];
+        age = new int[capacity];
+    }
+
+    public void spawn(float px, float py, int dmg) {
+        if (count == x.length) { // full: drop the oldest
+            head = (head + 1) % x.length;
+            count--;
+        }
+        int slot = (head + count) % x.length;
+        x[slot] = px;
+        y[slot] = py;
+        damage[slot] = dmg;
+        age[slot] = 0;
+        count++;
+    }
+
+    /** One simulation tick: move up, age, expire from the head. */
+    public void update() {
+        for (int i = 0, slot = head; i < count; i++, slot = (slot + 1) % x.length) {
+            y[slot] -= RISE_PER_TICK;
+            age[slot]++;
+        }
+        while (count > 0 && age[head] > LIFETIME_TICKS) {
+            head = (head + 1) % x.length;
+            count--;
+        }
+    }
+
+    public void draw(Graphics g) {
+        for (int i = 0, slot = head; i < count; i++, slot = (slot + 1) % x.length) {
+            float alpha = 1f - age[slot] / (float) LIFETIME_TICKS;
+            DamageText.draw(g, x[slot], y[slot], damage[slot], alpha);
+        }
+    }
+
+    /** Copies every popup from other (same capacity), for match snapshots. */
+    public void copyFrom(DamageTextPool other) {
+        System.arraycopy(other.x, 0, x, 0, x.length);
+        System.arraycopy(other.y, 0, y, 0, y.length);
+        System.arraycopy(other.damage, 0, damage, 0, damage.length);
+        System.arraycopy(other.age, 0, age, 0, age.length);
+        head = other.head;
+        count = other.count;
+    }
+
+    public void clear() {
+        head = 0;
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+}
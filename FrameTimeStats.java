@@ -0,0 +1,44 @@
+package game;
+
+/**
+ * Small rolling frame-time counter used to compare render paths.
+ * Collects samples and prints avg/max every REPORT_EVERY frames.
+ * Debug only: off (record() does nothing) unless started with -Dgame.debugRender=true.
+ */
+public class FrameTimeStats {
+
+    static final boolean DEBUG = Boolean.getBoolean("game.debugRender");
+
+    private static final int REPORT_EVERY = 300; // ~5 seconds at 60 FPS
+
+    private final String label;
+    private long totalNanos = 0;
+    private long maxNanos = 0;
+    private int samples = 0;
+
+    public FrameTimeStats(String label) {
+        this.label = label;
+    }
+
+    public void record(long nanos) {
+        if (DEBUG) add(nanos);
+    }
+
+    private synchronized void add(long nanos) {
+        totalNanos += nanos;
+        if (nanos > maxNanos) maxNanos = nanos;
+        samples++;
+
+        if (samples >= REPORT_EVERY) {
+            System.out.printf("[%s] frames=%d avg=%.2f ms max=%.2f ms%n",
+                    label, samples, totalNanos / (samples * 1_000_000.0), maxNanos / 1_000_000.0);
+            reset();
+        }
+    }
+
+    public synchronized void reset() {
+        totalNanos = 0;
+        maxNanos = 0;
+        samples = 0;
+    }
+}
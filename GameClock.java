@@ -0,0 +1,89 @@
+package game;
+
+/**
+ * GameClock - simulation time as a tick counter.
+ * - a MatchSimulation owns one and advances it once per step(); timers store a start tick and
+ *   compare, so pausing, hitstop or running 100x real time is just stepping slower or faster
+ * - scale is how many game seconds pass per real second for loops that pace themselves against
+ *   the wall clock (GamePanel): 1 normal, 0.25 slow motion, 0 paused
+ * - objects that can't be handed a clock (built deep inside Player) take current(): the clock
+ *   of the MatchSimulation creating them on this thread, or a real-time clock outside a match
+ */
+public final class GameClock {
+
+    public static final int TICK_RATE = 60;
+
+    private static final ThreadLocal<GameClock> BOUND = new ThreadLocal<>();
+    private static final GameClock REALTIME = new GameClock(true);
+
+    private final boolean realtime;  // ticks follow System.nanoTime (no simulation around)
+    private final long origin = System.nanoTime();
+    private long tick = 0;
+    private volatile double scale = 1.0;
+
+    public GameClock() {
+        this(false);
+    }
+
+    private GameClock(boolean realtime) {
+        this.realtime = realtime;
+    }
+
+    /** One simulation tick passed. */
+    public void advance() {
+        tick++;
+    }
+
+    /** Puts the clock back to a saved tick (MatchSimulation.restore). */
+    void setTick(long tick) {
+        this.tick = tick;
+    }
+
+    public long getTick() {
+        return realtime ? (System.nanoTime() - origin) * TICK_RATE / 1_000_000_000L : tick;
+    }
+
+    /** Game time in ms (tick based, so it stops when the simulation does). */
+    public long millis() {
+        return getTick() * 1000 / TICK_RATE;
+    }
+
+    public long ticksSince(long startTick) {
+        return getTick() - startTick;
+    }
+
+    /** Whole ticks covering ms (rounded up), for converting old millisecond timers. */
+    public static long ticksFor(long ms) {
+        return (ms * TICK_RATE + 999) / 1000;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    public void setScale(double scale) {
+        this.scale = Math.max(0, scale);
+    }
+
+    // =========================
+    //   CLOCK FOR NEW OBJECTS
+    // =========================
+
+    /** The clock objects created on this thread right now should run on. */
+    public static GameClock current() {
+        GameClock c = BOUND.get();
+        return c != null ? c : REALTIME;
+    }
+
+    /** Makes clock current() on this thread, returns the previous one for unbind(). */
+    static GameClock bind(GameClock clock) {
+        GameClock previous = BOUND.get();
+        BOUND.set(clock);
+        return previous;
+    }
+
+    static void unbind(GameClock previous) {
+        if (previous == null) BOUND.remove();
+        else BOUND.set(previous);
+    }
+}
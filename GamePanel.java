@@ -1,64 +1,108 @@
 package game;
 
 import java.awt.*;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.awt.image.BufferStrategy;
+import java.nio.file.Path;
 import java.util.Random;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
 import javax.swing.*;
 
 import game.entities.Player;
 
 /**
  * GamePanel:
- * - loads character stats HashMap (Katana, Axe, Scythe)
- * - handles combat + hit detection
- * - applies knockback + hitflash by calling Player.takeDamage(amount, dir, force)
- * - manages DamageText queue (LinkedList used as Queue)
+ * - owns the game loop and draws a MatchSimulation (the rules live there, see MatchSimulation)
+ * - feeds it one InputSnapshot per player per tick (keyboard, or the AI for player2)
+ * - plays match sounds through MatchSimulation.Listener
  *
- * Added: AIController inner class (queue-based) that drives player2 by toggling keyHandler booleans.
+ * AIController (queue-based) drives player2 in vsAI mode by producing its own InputSnapshot.
+ *
+ * Rendering has two paths sharing render(Graphics2D):
+ * - passive (default): game thread calls repaint(), Swing paints on the EDT
+ * - active (-Dgame.activeRender=true or F2): game thread draws into a Canvas BufferStrategy
+ *
+ * As a Scene the loop runs on SceneManager's game-loop thread from onStart() to onStop();
+ * leaving the match (menu button, window switch) stops it and removes the input listeners.
  */
-public class GamePanel extends JPanel implements Runnable, MouseListener, MouseMotionListener {
+public class GamePanel extends JPanel implements Runnable, Scene, MouseListener, MouseMotionListener {
     //background
     private Image backgroundImg;
+    private final StaticLayerCache staticLayer = new StaticLayerCache(this::paintStaticLayer);
+
+    // the match itself (created once the panel has a size)
+    private volatile MatchSimulation sim;
+
+    // sparks / dust / afterimages: only rendered matches have them, the match fills them on the game thread
+    private static final int PARTICLE_CAPACITY = 16384;
+    private final ParticleSystem particles = new ParticleSystem(PARTICLE_CAPACITY);
+    private volatile boolean restartRequested = false; // set on the EDT, handled by the game thread
+
+    // every match is recorded (inputs only) and saved when it ends, see ReplayPlayer
+    private final ReplayRecorder recorder = new ReplayRecorder();
+    private final Path replayDir = ReplayRecorder.replayDir(); // null = recording off
+    private long matchSeed;
+
+    // match sounds
+    private final MatchSimulation.Listener soundListener = new MatchSimulation.Listener() {
+        @Override
+        public void onCountdown(int number) {
+            SoundPlayer.play(AssetRegistry.SFX_BEEP);
+        }
 
-    // =========================
-    //       WIN SYSTEM
-    // =========================
-    private boolean gameOver = false;
-    private String winnerText = "";
-
-
-    // =========================
-    //     COUNTDOWN SYSTEM
-    // =========================
-    private long countdownStart = System.currentTimeMillis();
-    private int countdown = 3;
-    private boolean countdownFinished = false;
-    private boolean playedFightSound = false;
-    private boolean playedNumberSound = false;
+        @Override
+        public void onFight() {
+            SoundPlayer.play(AssetRegistry.SFX_FIGHT);
+        }
+    };
 
     // for player vs bot
     private AIController aiController;
     private boolean vsAI = true;  // enable AI mode
 
+    // online play (rollback over UDP), null for local matches
+    private final NetSession net;
+
     private String p1Weapon;
     private String p2Weapon;
 
-    private Thread gameThread;
-    private final int FPS = 60;
-    private final KeyHandler keyHandler;
+    // game loop (on SceneManager's thread) while the scene is shown
+    private final boolean ownLoop;            // false: the caller drives the panel (benchmarks)
+    private Future<?> loop;
+    private volatile boolean running = false;
+    private volatile boolean paused = false;  // window minimized (local matches only)
+    private final int FPS = 60;          // render rate
+    private final int TICK_RATE = MatchSimulation.TICK_RATE; // simulation rate (fixed timestep)
 
-    private Player player1;
-    private Player player2;
+    // fixed timestep: never simulate more than this much time in one frame (avoids spiral of death)
+    private static final long MAX_FRAME_NANOS = 250_000_000L;
+    // park until this close to the deadline, then spin (keeps pacing jitter around +-0.5 ms)
+    private static final long SPIN_THRESHOLD_NANOS = 1_000_000L;
 
-    private final int groundOffset = 100;
+    // render interpolation between the previous and current tick (0..1), read on the EDT
+    private volatile double renderAlpha = 1.0;
+    private int p1PrevX, p1PrevY, p2PrevX, p2PrevY;
 
-    // Damage text queue
-    private Queue<DamageText> damageTexts = new LinkedList<>();
+    // =========================
+    //     ACTIVE RENDERING
+    // =========================
+    private volatile boolean activeRender = Boolean.getBoolean("game.activeRender");
+
+    // F3: frame-time / section metrics overlay
+    private volatile boolean showMetrics = false;
+    private final Canvas canvas = new Canvas();
+    private volatile long repaintRequestedAt = 0;
+
+    // request -> frame on screen, per render path
+    private final FrameTimeStats passiveStats = new FrameTimeStats("passive repaint");
+    private final FrameTimeStats activeStats = new FrameTimeStats("active BufferStrategy");
+    private final KeyHandler keyHandler;
+    private final KeyAdapter renderToggle;
 
     // Top Buttons (center of screen)
     private java.awt.Rectangle replayBtn = new java.awt.Rectangle(350, 10, 80, 30);
@@ -67,10 +111,43 @@ public class GamePanel extends JPanel implements Runnable, MouseListener, MouseM
     private boolean replayHover = false;
     private boolean exitHover = false;
 
+    // =========================
+    //   HUD TEXT + COLORS
+    //  (built once, the HUD path allocates nothing per frame)
+    // =========================
+    private static final GlyphAtlas HP_TEXT       = GlyphAtlas.get("Consolas", Font.BOLD, 16, Color.WHITE, true);
+    private static final GlyphAtlas COOLDOWN_TEXT = GlyphAtlas.get("Consolas", Font.BOLD, 14, Color.WHITE, true);
+    private static final GlyphAtlas BUTTON_TEXT   = GlyphAtlas.get("Monospaced", Font.BOLD, 20, Color.WHITE, true);
+    private static final GlyphAtlas COUNTDOWN_TEXT   = GlyphAtlas.get("Monospaced", Font.BOLD, 90, Color.WHITE, true);
+    private static final GlyphAtlas COUNTDOWN_SHADOW = GlyphAtlas.get("Monospaced", Font.BOLD, 90, Color.BLACK, true);
+    private static final GlyphAtlas WIN_TEXT      = GlyphAtlas.get("Monospaced", Font.BOLD, 70, Color.WHITE, true);
+    private static final GlyphAtlas WIN_SHADOW    = GlyphAtlas.get("Monospaced", Font.BOLD, 70, Color.BLACK, true);
+    private static final GlyphAtlas RESTART_TEXT  = GlyphAtlas.get("Monospaced", Font.BOLD, 30, Color.WHITE, true);
+
+    private static final Color SHADOW_COLOR   = new Color(0, 0, 0, 120);
+    private static final Color HP_BACK        = new Color(40, 40, 40);
+    private static final Color HP_GREEN       = new Color(50, 200, 50);
+    private static final Color BUTTON_IDLE    = new Color(60, 60, 60);
+    private static final Color REPLAY_HOVER   = new Color(100, 170, 100);
+    private static final Color EXIT_HOVER     = new Color(170, 80, 80);
+    private static final Color WIN_OVERLAY    = new Color(0, 0, 0, 180);
+
     public GamePanel(String p1Weapon, String p2Weapon, boolean vsAI) {
+        this(p1Weapon, p2Weapon, vsAI, null, true);
+    }
+
+    /** Online match: the local keyboard (player 1 keys) plays net.getLocalPlayer(), the peer plays the other side. */
+    public GamePanel(String p1Weapon, String p2Weapon, NetSession net) {
+        this(p1Weapon, p2Weapon, false, net, true);
+    }
+
+    // startLoop = false: no game loop even when shown, the caller drives startMatch()/update()/paintComponent() (benchmarks)
+    GamePanel(String p1Weapon, String p2Weapon, boolean vsAI, NetSession net, boolean startLoop) {
+        this.ownLoop = startLoop;
         this.p1Weapon = p1Weapon;
         this.p2Weapon = p2Weapon;
         this.vsAI = vsAI;
+        this.net = net;
 
         setPreferredSize(new Dimension(800, 600));
         setBackground(Color.BLACK);
@@ -83,400 +160,393 @@ public class GamePanel extends JPanel implements Runnable, MouseListener, MouseM
         keyHandler = new KeyHandler();
         addKeyListener(keyHandler);
 
-        requestFocusInWindow();
-        startGameThread();
-
-        // Load background
-        backgroundImg = new ImageIcon(getClass().getResource("/game/assets/backgrounds/battle_bg.png")).getImage();
+        // F2 toggles between passive (Swing) and active (BufferStrategy) rendering
+        renderToggle = new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (e.getKeyCode() == KeyEvent.VK_F2) setActiveRender(!activeRender);
+                if (e.getKeyCode() == KeyEvent.VK_F3) showMetrics = !showMetrics;
+            }
+        };
+        addKeyListener(renderToggle);
+
+        // the canvas covers the panel in active mode, so it needs the same input listeners
+        setLayout(new BorderLayout());
+        canvas.setIgnoreRepaint(true);
+        canvas.setFocusable(true);
+        canvas.addKeyListener(keyHandler);
+        canvas.addKeyListener(renderToggle);
+        canvas.addMouseListener(this);
+        canvas.addMouseMotionListener(this);
+        if (activeRender) add(canvas, BorderLayout.CENTER);
+
+        // Background from AssetRegistry (decoded at startup; the static layer cache bakes it in)
+        backgroundImg = AssetRegistry.image(AssetRegistry.BATTLE_BG);
 
+        requestFocusInWindow();
     }
 
-    public void startGameThread() {
-        gameThread = new Thread(this);
-        gameThread.start();
+    // =========================
+    //     SCENE LIFECYCLE
+    // =========================
+    @Override
+    public void onStart() {
+        if (ownLoop) startGameThread();
     }
 
     @Override
-    public void run() {
-        while (getWidth() == 0 || getHeight() == 0) {
-            try { Thread.sleep(10); } catch (InterruptedException ignored) {}
-        }
-
-        int groundY = getHeight() - groundOffset;
-
-        // default weapons: Katana and Scythe (change strings to pick other characters)
-        player1 = new Player(150, groundY, Color.CYAN, keyHandler, true, p1Weapon);
-        player2 = new Player(600, groundY, Color.ORANGE, keyHandler, false, p2Weapon);
-
-        int actualGroundY = getHeight() - 100;
-        player1.setGroundY(actualGroundY);
-        player2.setGroundY(actualGroundY);
-
-        player1.setPanelWidth(getWidth());
-        player2.setPanelWidth(getWidth());
-
-        // initialize AI after players exist
-        if (vsAI) {
-            aiController = new AIController(player2, player1, keyHandler);
-        }
+    public void onPause() {
+        if (net == null) paused = true; // an online match can't stop, the peer keeps playing
+    }
 
-        double drawInterval = 1000000000.0 / FPS;
-        double nextDrawTime = System.nanoTime() + drawInterval;
+    @Override
+    public void onResume() {
+        paused = false;
+    }
 
-        while (gameThread != null) {
-            update();
-            repaint();
+    @Override
+    public void onStop() {
+        stopGameThread();
+
+        removeKeyListener(keyHandler);
+        removeKeyListener(renderToggle);
+        removeMouseListener(this);
+        removeMouseMotionListener(this);
+        canvas.removeKeyListener(keyHandler);
+        canvas.removeKeyListener(renderToggle);
+        canvas.removeMouseListener(this);
+        canvas.removeMouseMotionListener(this);
+
+        AudioEngine.get().stopAll();
+    }
 
-            try {
-                double remaining = nextDrawTime - System.nanoTime();
-                remaining /= 1000000;
-                if (remaining < 0) remaining = 0;
-                Thread.sleep((long) remaining);
-                nextDrawTime += drawInterval;
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }
+    public void startGameThread() {
+        if (loop != null) return;
+        running = true;
+        loop = SceneManager.startLoop(this, this);
     }
 
-    public void update() {
+    /** Ends the loop; it returns within a frame and frees the game-loop thread. */
+    public void stopGameThread() {
+        running = false;
+        if (loop != null) loop.cancel(false);
+        loop = null;
+    }
 
-        // If game is over, allow restart
-        if (gameOver) {
-            if (keyHandler.enterPressed) {
-                restartGame();
-            }
-            return; // stop updating players while game is over
+    @Override
+    public void run() {
+        while (running && (getWidth() == 0 || getHeight() == 0)) {
+            try { Thread.sleep(10); } catch (InterruptedException ignored) {}
         }
+        if (!running) return;
+
+        startMatch();
 
         // =========================================
-        //           COUNTDOWN UPDATE
+        //      FIXED TIMESTEP LOOP
+        //  simulation always advances in TICK_RATE steps,
+        //  rendering interpolates between the last two ticks
         // =========================================
-        if (!countdownFinished) {
-            long elapsed = (System.currentTimeMillis() - countdownStart) / 1000;
-
-            int newCount = 3 - (int)elapsed;
-
-            // Play number sound ONCE per number
-            if (newCount != countdown && newCount > 0) {
-                countdown = newCount;
-                SoundPlayer.play("/game/assets/sfx/beep.wav"); // use your sound
+        final long tickNanos = 1_000_000_000L / TICK_RATE;
+        final long frameNanos = 1_000_000_000L / FPS;
+
+        long previous = System.nanoTime();
+        long nextFrameTime = previous + frameNanos;
+        long accumulator = 0;
+
+        while (running) {
+            if (paused) {
+                LockSupport.parkNanos(frameNanos);
+                previous = System.nanoTime(); // don't catch up on the time spent minimized
+                nextFrameTime = previous + frameNanos;
+                accumulator = 0;
+                continue;
             }
 
-            // When reaching 0 → FIGHT
-            if (newCount <= 0) {
-                countdown = 0;
-
-                if (!playedFightSound) {
-                    SoundPlayer.play("/game/assets/sfx/fahh.wav");
-                    playedFightSound = true;
-                }
-
-                // finish countdown after 1 more second
-                if (elapsed >= 4) {
-                    countdownFinished = true;
-                }
+            long now = System.nanoTime();
+            long frameTime = now - previous;
+            previous = now;
+            if (frameTime > MAX_FRAME_NANOS) frameTime = MAX_FRAME_NANOS;
+            accumulator += (long) (frameTime * sim.getClock().getScale()); // slow motion / pause
+
+            while (accumulator >= tickNanos) {
+                capturePreviousPositions();
+                long t = Metrics.begin();
+                update();
+                Metrics.end(Metrics.UPDATE, t);
+                accumulator -= tickNanos;
             }
 
-            // freeze game during countdown
-            return;
-        }
-
-        if (player1 != null && player2 != null) {
-
-            // PLAYER 1 uses real keyboard (KeyHandler booleans)
-            player1.update();
-
-            // PLAYER 2: controlled either by AI (vsAI) or by keyboard
-            if (vsAI && aiController != null) {
-                // AI decides occasionally and enqueues commands
-                aiController.maybeThink();
-
-                // apply a single command (FIFO) into keyHandler booleans for player2
-                aiController.applyNextCommand();
-                // then update player2 (Player reads keyHandler flags inside its update())
-                player2.update();
-
-                // clear player2 key booleans that AI set (so keys are frame-pressed only)
-                aiController.clearPlayer2Keys();
+            renderAlpha = accumulator / (double) tickNanos;
+            if (activeRender) {
+                renderActive();
             } else {
-                // human 2-player
-                player2.update();
+                repaintRequestedAt = System.nanoTime();
+                repaint();
             }
 
-            handleCombat();
-            checkPlayerCollision(player1, player2);
-
-            // ===============================
-            //         WIN CONDITION
-            // ===============================
-            if (!gameOver) {
-                if (player1.getHealth() <= 0) {
-                    gameOver = true;
-                    winnerText = "PLAYER 2 WINS!";
-                }
-                else if (player2.getHealth() <= 0) {
-                    gameOver = true;
-                    winnerText = "PLAYER 1 WINS!";
-                }
-            }
+            waitUntil(nextFrameTime);
+            nextFrameTime += frameNanos;
 
-            // update damage texts (move & expire)
-            if (!damageTexts.isEmpty()) {
-                ArrayList<DamageText> toRemove = new ArrayList<>();
-                for (DamageText dt : damageTexts) {
-                    dt.update();
-                    if (dt.isExpired()) toRemove.add(dt);
-                }
-                damageTexts.removeAll(toRemove);
+            // fell more than a frame behind (GC pause, busy host): re-anchor instead of bursting frames
+            if (System.nanoTime() - nextFrameTime > frameNanos) {
+                nextFrameTime = System.nanoTime() + frameNanos;
             }
         }
     }
 
+    // New match sized to the panel (needs a non-zero size)
+    void startMatch() {
+        sim = new MatchSimulation(p1Weapon, p2Weapon, getWidth(), getHeight());
+        sim.setListener(soundListener);
+        sim.setParticles(particles);
 
+        // initialize AI after players exist
+        newMatchSeed();
+        if (net != null) net.attach(sim);
 
-    // HIT DETECTION: uses each player's attackHitbox and damage values
-    private void handleCombat() {
-        // player1 attacking player2
-        if (player1.isAttacking()
-                && player1.getAttackHitbox() != null
-                && !player1.hasHitThisAttack()) {
-            // Jump dodge
-            if (player2.isJumping() && player1.getAttackHeight() == Player.AttackHeight.LOW)
-                return;
-
-            // Crouch dodge
-            if (player2.isCrouching() && player1.getAttackHeight() == Player.AttackHeight.HIGH)
-                return;
-            // NEW: complete dodge invulnerability
-
-            if (player2.isDodging()) return;
-
-            if (player1.getAttackHitbox().intersects(player2.getHurtbox())) {
-                int dmg = player1.getCurrentAttackDamage();
-
-                int force = getKnockbackForce(player1.getWeaponType(), player1.getAttackType());
-                if (force < 0) force = Math.abs(force);
-
-                int dir = (player1.getX() < player2.getX()) ? 1 : -1;
-
-                player2.takeDamage(dmg, dir, force, player1.getAttackType(), player1.getWeaponType());
-
-                nudgeApartAfterHit(player1, player2, dir);
-
-                damageTexts.add(new DamageText(player2.getX() + player2.getWidth()/2, player2.getY() - 8, dmg));
+        capturePreviousPositions();
+    }
 
-                player1.registerAttackHit();
-            }
+    // fresh seed for the AI + a new replay recording (match start / restart)
+    private void newMatchSeed() {
+        matchSeed = System.nanoTime();
+        if (vsAI) {
+            aiController = new AIController(sim.getPlayer2(), sim.getPlayer1(), new Random(matchSeed));
+            aiController.setArenaWidth(sim.getWidth());
         }
+        recorder.begin(matchSeed, p1Weapon, p2Weapon, vsAI, sim.getWidth(), sim.getHeight());
+    }
 
-        // player2 attacking player1
-        if (player2.isAttacking()
-                && player2.getAttackHitbox() != null
-                && !player2.hasHitThisAttack()) {
-            // Jump dodge
-            if (player1.isJumping() && player2.getAttackHeight() == Player.AttackHeight.LOW)
-                return;
+    // Hybrid pacing: park for the bulk of the wait, spin for the last millisecond
+    private void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > SPIN_THRESHOLD_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+        }
+        while (deadline - System.nanoTime() > 0) {
+            Thread.onSpinWait();
+        }
+    }
 
-            // Crouch dodge
-            if (player1.isCrouching() && player2.getAttackHeight() == Player.AttackHeight.HIGH)
+    // Active path: draw straight into the canvas back buffer from the game thread
+    private void renderActive() {
+        long start = System.nanoTime();
+        try {
+            BufferStrategy bs = canvas.getBufferStrategy();
+            if (bs == null) {
+                if (!canvas.isDisplayable()) return;
+                canvas.createBufferStrategy(2);
                 return;
-            // NEW
-            if (player1.isDodging()) return;
-
-            if (player2.getAttackHitbox().intersects(player1.getHurtbox())) {
-                int dmg = player2.getCurrentAttackDamage();
-                int force = getKnockbackForce(player2.getWeaponType(), player2.getAttackType());
-                if (force < 0) force = Math.abs(force);
-
-                int dir = (player2.getX() < player1.getX()) ? 1 : -1;
-
-                player1.takeDamage(dmg, dir, force, player2.getAttackType(), player2.getWeaponType());
-
-                nudgeApartAfterHit(player2, player1, dir);
-
-                damageTexts.add(new DamageText(player1.getX() + player1.getWidth()/2, player1.getY() - 8, dmg));
-
-                player2.registerAttackHit();
             }
+
+            do {
+                do {
+                    Graphics2D g2 = (Graphics2D) bs.getDrawGraphics();
+                    try {
+                        g2.setColor(getBackground());
+                        g2.fillRect(0, 0, getWidth(), getHeight());
+                        render(g2);
+                    } finally {
+                        g2.dispose();
+                    }
+                } while (bs.contentsRestored());
+                bs.show();
+            } while (bs.contentsLost());
+
+            Toolkit.getDefaultToolkit().sync();
+            activeStats.record(System.nanoTime() - start);
+            Metrics.frame();
+        } catch (IllegalStateException e) {
+            // canvas was removed (mode switched) while we were drawing; next frame picks the new path
         }
     }
 
-    // Small helper to nudge target away from attacker after hit to prevent overlap-pulling glitches.
-    private void nudgeApartAfterHit(Player attacker, Player target, int dir) {
-        int minGap = 2; // pixels gap to ensure separation
-        if (attacker.getX() < target.getX()) {
-            int desiredX = attacker.getX() + attacker.getWidth() + minGap;
-            if (target.getX() < desiredX) {
-                target.setX(desiredX);
+    // Switch render path at runtime (F2)
+    private void setActiveRender(boolean active) {
+        SwingUtilities.invokeLater(() -> {
+            if (active == activeRender) return;
+            if (active) {
+                add(canvas, BorderLayout.CENTER);
             } else {
-                target.setX(target.getX() + dir * Math.max(1, (int)Math.round((double)dir * 1)));
+                remove(canvas);
             }
-        } else {
-            int desiredX = attacker.getX() - target.getWidth() - minGap;
-            if (target.getX() > desiredX) {
-                target.setX(desiredX);
-            } else {
-                target.setX(target.getX() + dir * Math.max(1, (int)Math.round((double)dir * 1)));
+            activeRender = active;
+            revalidate();
+            repaint();
+
+            passiveStats.reset();
+            activeStats.reset();
+            if (FrameTimeStats.DEBUG) {
+                System.out.println("Render mode: " + (active ? "active (BufferStrategy)" : "passive (repaint)"));
             }
-        }
+
+            if (active) canvas.requestFocusInWindow();
+            else requestFocusInWindow();
+        });
     }
 
-    private int getKnockbackForce(String weapon, int attackType) {
-        switch (weapon) {
-            case "Katana":
-                if (attackType == 1) return 8;
-                if (attackType == 2) return 12;
-                if (attackType == 3) return 15;
-                break;
-            case "Axe":
-                if (attackType == 1) return 10;
-                if (attackType == 2) return 16;
-                if (attackType == 3) return 20;
-                break;
-            case "Scythe":
-                if (attackType == 1) return 6;
-                if (attackType == 2) return 18;
-                if (attackType == 3) return 12;
-                break;
-        }
-        return 8; // fallback
+    // Remember positions before a tick so paintComponent can interpolate
+    private void capturePreviousPositions() {
+        MatchSimulation s = sim;
+        if (s == null) return;
+
+        p1PrevX = s.getPlayer1().getX();
+        p1PrevY = s.getPlayer1().getY();
+        p2PrevX = s.getPlayer2().getX();
+        p2PrevY = s.getPlayer2().getY();
     }
 
-    private void checkPlayerCollision(Player p1, Player p2) {
-        if (p1.getX() < p2.getX() + p2.getWidth() &&
-                p1.getX() + p1.getWidth() > p2.getX() &&
-                p1.getY() < p2.getY() + p2.getHeight() &&
-                p1.getY() + p1.getHeight() > p2.getY()) {
+    public void update() {
+        // drain key events once per tick -> per-player snapshots + KeyHandler flags
+        keyHandler.poll();
 
-            int overlapX = Math.min(
-                    p1.getX() + p1.getWidth() - p2.getX(),
-                    p2.getX() + p2.getWidth() - p1.getX()
-            );
+        if (restartRequested) {
+            restartRequested = false;
+            if (net == null) restartGame(); // both peers would have to agree on a restart
+        }
 
-            if (p1.getX() < p2.getX()) {
-                p1.setX(p1.getX() - overlapX / 2);
-                p2.setX(p2.getX() + overlapX / 2);
-            } else {
-                p1.setX(p1.getX() + overlapX / 2);
-                p2.setX(p2.getX() - overlapX / 2);
-            }
+        if (net != null) {
+            // online: keep advancing even after a KO, a late remote input can still roll it back
+            net.advance(keyHandler.getSnapshot(1));
+            return;
         }
-    }
 
-    //for the menu ingame
-    private void restartGame() {
+        // If game is over, allow restart
+        if (sim.isGameOver()) {
+            if (keyHandler.enterPressed) {
+                restartGame();
+            }
+            return; // stop updating players while game is over
+        }
 
-        gameOver = false;       // <-- YOU MUST ADD THIS
-        winnerText = "";        // <-- Reset winner text
+        // PLAYER 1 uses the real keyboard, PLAYER 2 either the AI (vsAI) or the keyboard
+        int p1Input = keyHandler.getSnapshot(1);
+        int p2Input = keyHandler.getSnapshot(2);
 
+        if (vsAI && aiController != null && sim.isCountdownFinished()) {
+            long t = Metrics.begin();
 
-        int groundY = getHeight() - groundOffset;
+            // AI decides occasionally and enqueues commands
+            aiController.maybeThink();
 
-        player1 = new Player(150, groundY, Color.CYAN, keyHandler, true, p1Weapon);
-        player2 = new Player(600, groundY, Color.ORANGE, keyHandler, false, p2Weapon);
+            // the AI's snapshot for this tick replaces player2's keyboard snapshot
+            p2Input = aiController.nextInput();
+            Metrics.end(Metrics.AI, t);
+        }
 
-        int actualGroundY = getHeight() - 100;
-        player1.setGroundY(actualGroundY);
-        player2.setGroundY(actualGroundY);
+        sim.step(p1Input, p2Input);
+        recorder.record(p1Input, p2Input);
 
-        player1.setPanelWidth(getWidth());
-        player2.setPanelWidth(getWidth());
+        if (sim.isGameOver() && replayDir != null) {
+            recorder.end(sim.getWinner(), sim.getPlayer1().getHealth(), sim.getPlayer2().getHealth(), sim.checksum());
+            recorder.save(replayDir); // written on a background thread
+        }
+    }
 
-        damageTexts.clear();
+    //for the menu ingame (game thread only, the EDT sets restartRequested)
+    private void restartGame() {
+        sim.restart();
+        capturePreviousPositions();
 
         // reinit AI after recreated players
-        if (vsAI) {
-            aiController = new AIController(player2, player1, keyHandler);
-        }
-
-        countdownStart = System.currentTimeMillis();
-        countdown = 3;
-        countdownFinished = false;
-        playedFightSound = false;
-        playedNumberSound = false;
+        newMatchSeed();
     }
 
     private void goToMenu() {
         JFrame frame = (JFrame) getTopLevelAncestor();
-        if (frame != null) {
-            frame.getContentPane().removeAll();
-            frame.getContentPane().add(new MenuPanel(frame));
-            frame.revalidate();
-            frame.repaint();
-        }
+        if (frame != null) SceneManager.show(frame, new MenuPanel(frame)); // stops this match's loop
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
+        if (activeRender) return; // the canvas owns the screen
+
+        render((Graphics2D) g);
+        Metrics.frame();
+
+        long requestedAt = repaintRequestedAt;
+        if (requestedAt != 0) passiveStats.record(System.nanoTime() - requestedAt);
+    }
 
+    // Shared by both render paths. Draw order: background, overlays, shadows, players,
+    // particles, HP bars, cooldowns, damage texts, buttons, countdown, win screen.
+    private void render(Graphics2D g2) {
         int btnY = getHeight() - 50; // very bottom
 
         replayBtn.setBounds(getWidth()/2 - 140, btnY, 120, 35);
         exitBtn.setBounds(getWidth()/2 + 20,  btnY, 120, 35);
 
-        Graphics2D g2 = (Graphics2D) g;
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
         // ==================================================
         //                  BACKGROUND IMAGE
         // ==================================================
-        if (backgroundImg != null) {
-            g2.drawImage(backgroundImg, 0, 0, getWidth(), getHeight(), null);
-        }
-
-        // ====== Cinematic bars (top & bottom) ======
-        g2.setColor(new Color(0, 0, 0, 75));
-        g2.fillRect(0, 0, getWidth(), 45);
-        g2.fillRect(0, getHeight() - 45, getWidth(), 45);
-
-        // ====== Gradient overlay (makes colors pop) ======
-        GradientPaint grad = new GradientPaint(
-                0, 0, new Color(0, 0, 0, 40),
-                0, getHeight(), new Color(0, 0, 0, 120)
-        );
-        g2.setPaint(grad);
-        g2.fillRect(0, 0, getWidth(), getHeight());
+        // background + cinematic bars + gradient never change during a match:
+        // they are pre-rendered once per panel size and blitted in one drawImage
+        long t = Metrics.begin();
+        staticLayer.draw(g2, getWidth(), getHeight());
+        Metrics.end(Metrics.RENDER_BG, t);
+
+        MatchSimulation s = sim;
+        if (s == null) return; // game thread hasn't started the match yet
+        StartupMetrics.firstFrame("match");
+        Player player1 = s.getPlayer1();
+        Player player2 = s.getPlayer2();
 
         // ==================================================
         //                  PLAYER SHADOWS
         // ==================================================
-        if (player1 != null) drawShadow(g2, player1);
-        if (player2 != null) drawShadow(g2, player2);
+        // players are drawn between the previous and current tick (fixed timestep interpolation)
+        double alpha = renderAlpha;
+        int p1dx = lerpOffset(p1PrevX, player1.getX(), alpha);
+        int p1dy = lerpOffset(p1PrevY, player1.getY(), alpha);
+        int p2dx = lerpOffset(p2PrevX, player2.getX(), alpha);
+        int p2dy = lerpOffset(p2PrevY, player2.getY(), alpha);
+
+        t = Metrics.begin();
+        g2.translate(p1dx, p1dy); drawShadow(g2, player1); g2.translate(-p1dx, -p1dy);
+        g2.translate(p2dx, p2dy); drawShadow(g2, player2); g2.translate(-p2dx, -p2dy);
 
         // ==================================================
         //                   DRAW PLAYERS
         // ==================================================
-        if (player1 != null) player1.draw(g);
-        if (player2 != null) player2.draw(g);
+        g2.translate(p1dx, p1dy); player1.draw(g2); g2.translate(-p1dx, -p1dy);
+        g2.translate(p2dx, p2dy); player2.draw(g2); g2.translate(-p2dx, -p2dy);
+
+        Metrics.end(Metrics.RENDER_PLAYERS, t);
+
+        // ==================================================
+        //          PARTICLES (sparks, dust, afterimages)
+        // ==================================================
+        t = Metrics.begin();
+        particles.draw(g2, getWidth(), getHeight());
+        Metrics.end(Metrics.RENDER_FX, t);
 
         // ==================================================
         //                   HEALTH BARS
         // ==================================================
+        // HUD is timed in two parts around the damage texts and recorded once
+        t = Metrics.begin();
         drawHPBar(g2, 50, 40, player1.getHealth(), player1.getMaxHealth(), "P1");
         drawHPBar(g2, getWidth() - 400, 40, player2.getHealth(), player2.getMaxHealth(), "P2");
 
         // ==================================================
         //                 COOLDOWN TEXT
         // ==================================================
-        g2.setFont(new Font("Consolas", Font.BOLD, 14));
-        g2.setColor(Color.WHITE);
-
-        g2.drawString("BASIC " + player1.getCooldownRemainingSeconds(1), 50, 85);
-        g2.drawString("SKILL1 " + player1.getCooldownRemainingSeconds(2), 50, 102);
-        g2.drawString("SKILL2 " + player1.getCooldownRemainingSeconds(3), 50, 119);
-        g2.drawString("DODGE " + player1.getCooldownRemainingSeconds(4), 50, 136);
-
-        g2.drawString("BASIC " + player2.getCooldownRemainingSeconds(1), getWidth() - 200, 85);
-        g2.drawString("SKILL1 " + player2.getCooldownRemainingSeconds(2), getWidth() - 200, 102);
-        g2.drawString("SKILL2 " + player2.getCooldownRemainingSeconds(3), getWidth() - 200, 119);
-        g2.drawString("DODGE " + player2.getCooldownRemainingSeconds(4), getWidth() - 200, 136);
+        drawCooldowns(g2, s, 1, 50);
+        drawCooldowns(g2, s, 2, getWidth() - 200);
+        long hudNanos = t != 0 ? System.nanoTime() - t : 0;
 
         // ==================================================
         //                DAMAGE POPUP TEXTS
         // ==================================================
-        for (DamageText dt : damageTexts) dt.draw(g);
+        t = Metrics.begin();
+        s.getDamageTexts().draw(g2);
+        Metrics.end(Metrics.RENDER_TEXT, t);
+
+        t = Metrics.begin();
 
         // ==================================================
         //                TOP MENU BUTTONS
@@ -486,12 +556,46 @@ public class GamePanel extends JPanel implements Runnable, MouseListener, MouseM
         // ==================================================
         //                COUNTDOWN TEXT
         // ==================================================
-        if (!countdownFinished) drawCountdown(g2);
+        if (!s.isCountdownFinished()) drawCountdown(g2, s.getCountdown());
 
         // ==================================================
         //                 WIN SCREEN
         // ==================================================
-        if (gameOver) drawWinScreen(g2);
+        if (s.isGameOver()) drawWinScreen(g2, s.getWinnerText());
+        if (t != 0) Metrics.record(Metrics.RENDER_HUD, hudNanos + System.nanoTime() - t);
+
+        // ==================================================
+        //                METRICS OVERLAY (F3)
+        // ==================================================
+        if (showMetrics) MetricsOverlay.draw(g2, getWidth() - 290, 90);
+    }
+
+    // Static layer content, rendered only when the cache is (re)built
+    private void paintStaticLayer(Graphics2D g2, int width, int height) {
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+
+        if (backgroundImg != null) {
+            g2.drawImage(backgroundImg, 0, 0, width, height, null);
+        }
+
+        // ====== Cinematic bars (top & bottom) ======
+        g2.setColor(new Color(0, 0, 0, 75));
+        g2.fillRect(0, 0, width, 45);
+        g2.fillRect(0, height - 45, width, 45);
+
+        // ====== Gradient overlay (makes colors pop) ======
+        GradientPaint grad = new GradientPaint(
+                0, 0, new Color(0, 0, 0, 40),
+                0, height, new Color(0, 0, 0, 120)
+        );
+        g2.setPaint(grad);
+        g2.fillRect(0, 0, width, height);
+    }
+
+    // Offset from the current tick position back toward the previous one
+    private int lerpOffset(int prev, int current, double alpha) {
+        return (int) Math.round((prev - current) * (1.0 - alpha));
     }
 
     private void drawShadow(Graphics2D g2, Player p) {
@@ -500,7 +604,7 @@ public class GamePanel extends JPanel implements Runnable, MouseListener, MouseM
         int x = (int) p.getX() + p.getWidth()/2 - w/2;
         int y = (int) p.getY() + p.getHeight() - 5;
 
-        g2.setColor(new Color(0, 0, 0, 120));
+        g2.setColor(SHADOW_COLOR);
         g2.fillOval(x, y, w, h);
     }
 
@@ -511,70 +615,71 @@ public class GamePanel extends JPanel implements Runnable, MouseListener, MouseM
         g2.setColor(Color.BLACK);
         g2.fillRect(x - 4, y - 4, w + 8, h + 8);
 
-        g2.setColor(new Color(40, 40, 40));
+        g2.setColor(HP_BACK);
         g2.fillRect(x, y, w, h);
 
         int filled = (int) ((hp / (float) maxHp) * w);
-        g2.setColor(hp < maxHp * 0.3 ? Color.ORANGE : new Color(50, 200, 50));
+        g2.setColor(hp < maxHp * 0.3 ? Color.ORANGE : HP_GREEN);
         g2.fillRect(x, y, filled, h);
 
         g2.setColor(Color.WHITE);
         g2.drawRect(x, y, w, h);
 
-        g2.setFont(new Font("Consolas", Font.BOLD, 16));
-        g2.drawString(label + " HP: " + hp + "/" + maxHp, x, y - 6);
+        int tx = HP_TEXT.drawString(g2, label, x, y - 6);
+        tx = HP_TEXT.drawString(g2, " HP: ", tx, y - 6);
+        tx = HP_TEXT.drawInt(g2, hp, tx, y - 6);
+        tx = HP_TEXT.drawString(g2, "/", tx, y - 6);
+        HP_TEXT.drawInt(g2, maxHp, tx, y - 6);
+    }
+
+    // per-tick cached cooldowns (MatchSimulation), no Player calls from the render path
+    private void drawCooldowns(Graphics2D g2, MatchSimulation s, int player, int x) {
+        COOLDOWN_TEXT.drawInt(g2, s.getCooldownSeconds(player, 1), COOLDOWN_TEXT.drawString(g2, "BASIC ", x, 85), 85);
+        COOLDOWN_TEXT.drawInt(g2, s.getCooldownSeconds(player, 2), COOLDOWN_TEXT.drawString(g2, "SKILL1 ", x, 102), 102);
+        COOLDOWN_TEXT.drawInt(g2, s.getCooldownSeconds(player, 3), COOLDOWN_TEXT.drawString(g2, "SKILL2 ", x, 119), 119);
+        COOLDOWN_TEXT.drawInt(g2, s.getCooldownSeconds(player, 4), COOLDOWN_TEXT.drawString(g2, "DODGE ", x, 136), 136);
     }
 
     private void drawButtons(Graphics2D g2) {
         // Replay Button
-        g2.setColor(replayHover ? new Color(100, 170, 100) : new Color(60, 60, 60));
+        g2.setColor(replayHover ? REPLAY_HOVER : BUTTON_IDLE);
         g2.fillRoundRect(replayBtn.x, replayBtn.y, replayBtn.width, replayBtn.height, 10, 10);
 
-        g2.setColor(Color.WHITE);
-        g2.setFont(new Font("Monospaced", Font.BOLD, 20));
-        g2.drawString("REMATCH", replayBtn.x + 18, replayBtn.y + 26);
+        BUTTON_TEXT.drawString(g2, "REMATCH", replayBtn.x + 18, replayBtn.y + 26);
 
         // Exit Button
-        g2.setColor(exitHover ? new Color(170, 80, 80) : new Color(60, 60, 60));
+        g2.setColor(exitHover ? EXIT_HOVER : BUTTON_IDLE);
         g2.fillRoundRect(exitBtn.x, exitBtn.y, exitBtn.width, exitBtn.height, 10, 10);
 
-        g2.setColor(Color.WHITE);
-        g2.drawString("EXIT", exitBtn.x + 38, exitBtn.y + 26);
+        BUTTON_TEXT.drawString(g2, "EXIT", exitBtn.x + 38, exitBtn.y + 26);
     }
 
-    private void drawCountdown(Graphics2D g2) {
-        g2.setFont(new Font("Monospaced", Font.BOLD, 90));
-
-        String text = (countdown > 0) ? String.valueOf(countdown) : "FIGHT!";
-        int tw = g2.getFontMetrics().stringWidth(text);
-
-        int x = (getWidth() - tw) / 2;
+    private void drawCountdown(Graphics2D g2, int countdown) {
         int y = getHeight() / 2;
 
-        g2.setColor(Color.BLACK);
-        g2.drawString(text, x+4, y+4);
-
-        g2.setColor(Color.WHITE);
-        g2.drawString(text, x, y);
+        if (countdown > 0) {
+            int x = (getWidth() - COUNTDOWN_TEXT.intWidth(countdown)) / 2;
+            COUNTDOWN_SHADOW.drawInt(g2, countdown, x+4, y+4);
+            COUNTDOWN_TEXT.drawInt(g2, countdown, x, y);
+        } else {
+            int x = (getWidth() - COUNTDOWN_TEXT.stringWidth("FIGHT!")) / 2;
+            COUNTDOWN_SHADOW.drawString(g2, "FIGHT!", x+4, y+4);
+            COUNTDOWN_TEXT.drawString(g2, "FIGHT!", x, y);
+        }
     }
 
-    private void drawWinScreen(Graphics2D g2) {
-        g2.setColor(new Color(0,0,0,180));
+    private void drawWinScreen(Graphics2D g2, String winnerText) {
+        g2.setColor(WIN_OVERLAY);
         g2.fillRect(0,0,getWidth(),getHeight());
 
-        g2.setFont(new Font("Monospaced", Font.BOLD, 70));
-        int tw = g2.getFontMetrics().stringWidth(winnerText);
+        int tw = WIN_TEXT.stringWidth(winnerText);
 
-        g2.setColor(Color.BLACK);
-        g2.drawString(winnerText, (getWidth()-tw)/2 + 4, getHeight()/2 + 4);
+        WIN_SHADOW.drawString(g2, winnerText, (getWidth()-tw)/2 + 4, getHeight()/2 + 4);
+        WIN_TEXT.drawString(g2, winnerText, (getWidth()-tw)/2, getHeight()/2);
 
-        g2.setColor(Color.WHITE);
-        g2.drawString(winnerText, (getWidth()-tw)/2, getHeight()/2);
-
-        g2.setFont(new Font("Monospaced", Font.BOLD, 30));
         String msg = "Press ENTER to restart";
-        int sw = g2.getFontMetrics().stringWidth(msg);
-        g2.drawString(msg, (getWidth()-sw)/2, getHeight()/2 + 60);
+        int sw = RESTART_TEXT.stringWidth(msg);
+        RESTART_TEXT.drawString(g2, msg, (getWidth()-sw)/2, getHeight()/2 + 60);
     }
 
     @Override
@@ -583,7 +688,7 @@ public class GamePanel extends JPanel implements Runnable, MouseListener, MouseM
         int my = e.getY();
 
         if (replayBtn.contains(mx, my)) {
-            restartGame();
+            restartRequested = true; // picked up by the game thread on its next tick
         }
 
         if (exitBtn.contains(mx, my)) {
@@ -599,7 +704,7 @@ public class GamePanel extends JPanel implements Runnable, MouseListener, MouseM
         replayHover = replayBtn.contains(mx, my);
         exitHover = exitBtn.contains(mx, my);
 
-        repaint();
+        if (!activeRender) repaint();
     }
 
     @Override public void mouseDragged(MouseEvent e) {}
@@ -608,140 +713,4 @@ public class GamePanel extends JPanel implements Runnable, MouseListener, MouseM
     @Override public void mouseEntered(MouseEvent e) {}
     @Override public void mouseExited(MouseEvent e) {}
 
-    // -------------------------
-    // Inner AIController Class
-    // -------------------------
-    // Queue-based AI: generates a FIFO list of string commands and applies one per frame
-    private class AIController {
-        private final Queue<String> commands = new LinkedList<>();
-        private final Player ai;        // controlled player (player2)
-        private final Player target;    // target player (player1)
-        private final KeyHandler keys;
-        private final Random rng = new Random();
-
-        // decision timing
-        private int framesUntilNextThink = 0;
-        private final int baseThinkIntervalFrames = 8; // AI reacts every ~8 frames by default
-
-        public AIController(Player ai, Player target, KeyHandler keys) {
-            this.ai = ai;
-            this.target = target;
-            this.keys = keys;
-        }
-
-        // maybe create new high-level commands (not every frame)
-        public void maybeThink() {
-            if (framesUntilNextThink > 0) {
-                framesUntilNextThink--;
-                return;
-            }
-
-            think();
-            // add small random jitter to avoid robotic rhythm
-            framesUntilNextThink = baseThinkIntervalFrames + rng.nextInt(6);
-        }
-
-        // Decide a small plan and enqueue commands (FIFO)
-        private void think() {
-            commands.clear(); // we produce fresh short plans each think
-
-            int distance = Math.abs(ai.getX() - target.getX());
-
-            // If low HP, occasionally back off
-            if (ai.getHealth() < ai.getMaxHealth() * 0.25 && rng.nextDouble() < 0.6) {
-                if (ai.getX() < target.getX()) commands.add("back_away");
-                else commands.add("back_away");
-                // sometimes jump/back + wait
-                if (rng.nextDouble() < 0.35) commands.add("jump");
-                return;
-            }
-
-            // Movement decisions
-            if (distance > 170) {
-                // far: move closer
-                commands.add("move_closer");
-                // occasionally do a short run then attack
-                if (rng.nextDouble() < 0.5 && distance < 260) commands.add("attack");
-            } else if (distance < 70) {
-                // too close: back away + maybe dodge
-                commands.add("back_away");
-                if (rng.nextDouble() < 0.35) commands.add("jump");
-            } else {
-                // in mid-range: choose aggression or bait
-                if (rng.nextDouble() < 0.65) {
-                    commands.add("attack");
-                } else {
-                    // fake: step forward then step back
-                    commands.add("move_closer");
-                    commands.add("back_away");
-                }
-            }
-
-            // Defensive: if target is attacking right now, try to jump or dodge sometimes
-            if (target.isAttacking() && rng.nextDouble() < 0.6) {
-                // choose jump vs back_away
-                if (rng.nextDouble() < 0.6) commands.add("jump");
-                else commands.add("back_away");
-            }
-        }
-
-        // Apply a single next command by toggling the KeyHandler booleans for player2 keys
-        // Player2 key mapping observed in Player.java:
-        // leftPressed, rightPressed, upPressed, downPressed,
-        // periodPressed (basic), commaPressed (skill1), mPressed (skill2), slashPressed (dodge)
-        public void applyNextCommand() {
-            // first, clear all player2 key flags to avoid carry-over (we want single-frame presses)
-            clearPlayer2Keys();
-
-            if (commands.isEmpty()) return;
-
-            String cmd = commands.poll();
-            if (cmd == null) return;
-
-            switch (cmd) {
-                case "move_closer":
-                    if (ai.getX() < target.getX()) keys.rightPressed = true;
-                    else keys.leftPressed = true;
-                    break;
-                case "back_away":
-                    if (ai.getX() < target.getX()) keys.leftPressed = true;
-                    else keys.rightPressed = true;
-                    break;
-                case "attack":
-                    // preferentially use basic attack; if basic on cooldown, try skill1
-                    int remainingBasic = ai.getCooldownRemainingSeconds(1);
-                    int remainingSkill1 = ai.getCooldownRemainingSeconds(2);
-                    if (remainingBasic == 0) {
-                        keys.periodPressed = true; // basic
-                    } else if (remainingSkill1 == 0 && rng.nextDouble() < 0.5) {
-                        keys.commaPressed = true; // skill1
-                    } else {
-                        // fallback: still press basic (will be ignored if cooldown)
-                        keys.periodPressed = true;
-                    }
-                    break;
-                case "jump":
-                    keys.upPressed = true;
-                    break;
-                default:
-                    // nothing
-            }
-        }
-
-        // Clear player2's key booleans so they are only "pressed" for a single frame
-        public void clearPlayer2Keys() {
-            keys.leftPressed = false;
-            keys.rightPressed = false;
-            keys.upPressed = false;
-            keys.downPressed = false;
-
-            keys.periodPressed = false;
-            keys.commaPressed = false;
-            keys.mPressed = false;
-            keys.slashPressed = false;
-            // Note: dodge uses slashPressed per Player.handleDodge()
-            // If your KeyHandler uses different names, update these fields accordingly.
-        }
-    }
-
 }
\ No newline at end of file
@@ -0,0 +1,140 @@
+package game;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * GlyphAtlas:
+ * - pre-rasterizes printable ASCII (32..126) for one font + color into a single sheet
+ * - drawString/drawInt blit sub-rects of that sheet, so HUD text allocates nothing per frame
+ * - atlases are shared through get(...), build them once (static fields) and reuse
+ *
+ * Characters outside the atlas are drawn as '?'.
+ */
+public class GlyphAtlas {
+
+    private static final char FIRST = 32;
+    private static final char LAST = 126;
+    private static final int PAD = 2; // room for AA fringe / bold overhang
+
+    private static final Map<String, GlyphAtlas> cache = new HashMap<>();
+
+    private final BufferedImage sheet;
+    private final int[] advance = new int[LAST - FIRST + 1];
+    private final int cellWidth;
+    private final int cellHeight;
+    private final int ascent;
+
+    /** Shared atlas for the given font/color (built on first request). */
+    public static synchronized GlyphAtlas get(String family, int style, int size, Color color, boolean antialias) {
+        String key = family + "|" + style + "|" + size + "|" + color.getRGB() + "|" + antialias;
+        GlyphAtlas atlas = cache.get(key);
+        if (atlas == null) {
+            atlas = new GlyphAtlas(new Font(family, style, size), color, antialias);
+            cache.put(key, atlas);
+        }
+        return atlas;
+    }
+
+    private GlyphAtlas(Font font, Color color, boolean antialias) {
+        // measure with a scratch image
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D sg = scratch.createGraphics();
+        sg.setFont(font);
+        FontMetrics fm = sg.getFontMetrics();
+        sg.dispose();
+
+        int maxAdvance = 0;
+        for (char c = FIRST; c <= LAST; c++) {
+            advance[c - FIRST] = fm.charWidth(c);
+            maxAdvance = Math.max(maxAdvance, advance[c - FIRST]);
+        }
+
+        ascent = fm.getAscent();
+        cellWidth = maxAdvance + PAD * 2;
+        cellHeight = fm.getAscent() + fm.getDescent() + PAD * 2;
+
+        // rasterize every glyph once, one cell per character
+        sheet = new BufferedImage(cellWidth * advance.length, cellHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = sheet.createGraphics();
+        g2.setFont(font);
+        g2.setColor(color);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, antialias
+                ? RenderingHints.VALUE_TEXT_ANTIALIAS_ON
+                : RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+
+        char[] one = new char[1];
+        for (char c = FIRST; c <= LAST; c++) {
+            one[0] = c;
+            g2.drawChars(one, 0, 1, (c - FIRST) * cellWidth + PAD, PAD + ascent);
+        }
+        g2.dispose();
+    }
+
+    /** Draws text with its baseline at y. Returns the x just after the last glyph. */
+    public int drawString(Graphics g, String text, int x, int y) {
+        for (int i = 0; i < text.length(); i++) {
+            x = drawChar(g, text.charAt(i), x, y);
+        }
+        return x;
+    }
+
+    /** Draws an int without converting it to a String. Returns the x just after the last digit. */
+    public int drawInt(Graphics g, int value, int x, int y) {
+        long v = value;
+        if (v < 0) {
+            x = drawChar(g, '-', x, y);
+            v = -v;
+        }
+
+        long divisor = 1;
+        while (divisor * 10 <= v) divisor *= 10;
+
+        while (divisor > 0) {
+            x = drawChar(g, (char) ('0' + (v / divisor) % 10), x, y);
+            divisor /= 10;
+        }
+        return x;
+    }
+
+    public int stringWidth(String text) {
+        int w = 0;
+        for (int i = 0; i < text.length(); i++) w += advance[index(text.charAt(i))];
+        return w;
+    }
+
+    public int intWidth(int value) {
+        long v = value;
+        int w = 0;
+        if (v < 0) {
+            w += advance['-' - FIRST];
+            v = -v;
+        }
+        do {
+            w += advance['0' - FIRST]; // digits share one advance in the fonts we use
+            v /= 10;
+        } while (v > 0);
+        return w;
+    }
+
+    public int getAscent() {
+        return ascent;
+    }
+
+    private int drawChar(Graphics g, char c, int x, int y) {
+        int i = index(c);
+        int sx = i * cellWidth;
+        int dx = x - PAD;
+        int dy = y - ascent - PAD;
+
+        g.drawImage(sheet, dx, dy, dx + cellWidth, dy + cellHeight, sx, 0, sx + cellWidth, cellHeight, null);
+        return x + advance[i];
+    }
+
+    private static int index(char c) {
+        if (c < FIRST || c > LAST) c = '?';
+        return c - FIRST;
+    }
+}
@@ -0,0 +1,91 @@
+package game;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * HitMask - which pixels of one weapon frame are solid, as packed bits.
+ * - built once from the sprite's alpha when SpriteRepository loads (fromAlpha)
+ * - one long[] per facing: row y, pixel x is bit (x & 63) of word y * words + x / 64;
+ *   the left-facing copy is the same frame mirrored, like the atlas
+ * - hitsRect() ANDs the rows under a rectangle word by word, so a hit test never reads pixels
+ */
+public final class HitMask {
+
+    /** Pixels with at least this alpha count as weapon. */
+    public static final int ALPHA_THRESHOLD = 128;
+
+    private final int width;
+    private final int height;
+    private final int words;       // longs per row
+    private final long[] right;    // facing right, as drawn
+    private final long[] left;     // mirrored
+    private final int solid;       // set pixels
+
+    private HitMask(int width, int height, long[] right, long[] left, int solid) {
+        this.width = width;
+        this.height = height;
+        this.words = (width + 63) >>> 6;
+        this.right = right;
+        this.left = left;
+        this.solid = solid;
+    }
+
+    public static HitMask fromAlpha(BufferedImage img) {
+        int w = img.getWidth();
+        int h = img.getHeight();
+        int words = (w + 63) >>> 6;
+        long[] right = new long[words * h];
+        long[] left = new long[words * h];
+        int[] row = new int[w];
+        int solid = 0;
+
+        for (int y = 0; y < h; y++) {
+            img.getRGB(0, y, w, 1, row, 0, w);
+            int base = y * words;
+            for (int x = 0; x < w; x++) {
+                if ((row[x] >>> 24) < ALPHA_THRESHOLD) continue;
+                int mx = w - 1 - x;
+                right[base + (x >>> 6)] |= 1L << x;
+                left[base + (mx >>> 6)] |= 1L << mx;
+                solid++;
+            }
+        }
+        return new HitMask(w, h, right, left, solid);
+    }
+
+    /**
+     * True if any solid pixel of this mask, placed with its top-left at (mx, my), falls inside the
+     * rectangle [rx, rx + rw) x [ry, ry + rh). facingDir < 0 uses the mirrored bits.
+     */
+    public boolean hitsRect(int facingDir, int mx, int my, int rx, int ry, int rw, int rh) {
+        // AABB reject, then clip the rectangle to the mask (mask coordinates)
+        int x0 = Math.max(rx - mx, 0);
+        int x1 = Math.min(rx + rw - mx, width);
+        int y0 = Math.max(ry - my, 0);
+        int y1 = Math.min(ry + rh - my, height);
+        if (x0 >= x1 || y0 >= y1) return false;
+
+        long[] bits = facingDir < 0 ? left : right;
+        int w0 = x0 >>> 6;
+        int w1 = (x1 - 1) >>> 6;
+        long firstMask = -1L << x0;              // bits >= x0 in the first word
+        long lastMask = -1L >>> (63 - ((x1 - 1) & 63)); // bits <= x1 - 1 in the last word
+
+        for (int y = y0; y < y1; y++) {
+            int base = y * words;
+            for (int i = w0; i <= w1; i++) {
+                long m = -1L;
+                if (i == w0) m &= firstMask;
+                if (i == w1) m &= lastMask;
+                if ((bits[base + i] & m) != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    /** Solid pixel count (a frame with none never hits). */
+    public int getSolidPixels() { return solid; }
+}
@@ -0,0 +1,350 @@
+package game;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+import game.entities.Player;
+
+/**
+ * HitResolver - hit detection for any number of fighters and hazards.
+ *
+ * Every tick:
+ * - each fighter contributes a body box, a hurtbox and (while attacking) an attack box,
+ *   hazards / projectiles add attack boxes of their own (addHazard, cleared after resolve)
+ * - broadphase: boxes are sorted on their left edge and swept once (sort-and-sweep),
+ *   only boxes overlapping on x are tested on y
+ * - narrowphase: attack vs hurtbox of another team, with the dodge rules (jump / crouch / dodge),
+ *   then the HitMask of the weapon frame being drawn: only solid pixels inside the hurtbox hit
+ * - results go into two contact lists sorted by (attacker, target) and (a, b),
+ *   so the same tick always resolves in the same order whatever the box layout was
+ *
+ * Nothing is applied here: MatchSimulation walks the contacts and deals damage / pushes bodies.
+ * All storage is primitive arrays that only grow, so a steady-state tick allocates nothing.
+ */
+public class HitResolver {
+
+    public static final int NO_TEAM = -1; // hazards on NO_TEAM hit everybody
+
+    private static final int BODY = 0;
+    private static final int HURT = 1;
+    private static final int ATTACK = 2;
+
+    // ===== fighters (registered once per match) =====
+    private Player[] fighters = new Player[4];
+    private int[] team = new int[4];
+    private int[] weaponId = new int[4];
+    private int fighterCount = 0;
+
+    // ===== weapon frame per fighter (for HitMasks) =====
+    // The frame is the one the fighter's AnimationController is drawing (getFrameIndex()), so the
+    // mask always matches the picture. It is placed on the attack box, at its left edge facing
+    // right and mirrored on its right edge facing left. Without a controller, while it draws
+    // nothing, or for a move without masks, the box is the hit.
+    private AnimationController[] animations = new AnimationController[4];
+    private HitMask[][] masks = new HitMask[4][];
+    private int[] masksType = new int[4];       // attack type masks[f] belongs to
+    private String[] masksWeapon = new String[4];
+
+    // ===== hazards (this tick only) =====
+    private int[] hazardBox = new int[4 * 4];   // x, y, w, h
+    private int[] hazardDamage = new int[4];
+    private int[] hazardForce = new int[4];
+    private int[] hazardHeight = new int[4];    // MoveTable.HEIGHT_LOW / HEIGHT_HIGH / UNSET
+    private int[] hazardTeam = new int[4];
+    private int hazardCount = 0;
+
+    // ===== boxes for the sweep =====
+    private int[] minX = new int[16];
+    private int[] maxX = new int[16];
+    private int[] minY = new int[16];
+    private int[] maxY = new int[16];
+    private int[] kind = new int[16];
+    private int[] owner = new int[16];  // fighter index, or fighterCount + hazard index
+    private int[] order = new int[16];
+    private int[] active = new int[16];
+    private int boxCount = 0;
+
+    // ===== contacts (packed: first << 32 | second, sorted) =====
+    private long[] hits = new long[8];
+    private int hitCount = 0;
+    private long[] bodies = new long[8];
+    private int bodyCount = 0;
+
+    /** Registers a fighter for the rest of the match (box hits only). Returns its index (contact ids). */
+    public int addFighter(Player player, int teamId, int weapon) {
+        return addFighter(player, teamId, weapon, null);
+    }
+
+    /** Same, with the fighter's AnimationController so hits follow the weapon frame being drawn. */
+    public int addFighter(Player player, int teamId, int weapon, AnimationController animation) {
+        if (fighterCount == fighters.length) {
+            fighters = Arrays.copyOf(fighters, fighterCount * 2);
+            team = Arrays.copyOf(team, fighterCount * 2);
+            weaponId = Arrays.copyOf(weaponId, fighterCount * 2);
+            animations = Arrays.copyOf(animations, fighterCount * 2);
+            masks = Arrays.copyOf(masks, fighterCount * 2);
+            masksType = Arrays.copyOf(masksType, fighterCount * 2);
+            masksWeapon = Arrays.copyOf(masksWeapon, fighterCount * 2);
+        }
+        fighters[fighterCount] = player;
+        team[fighterCount] = teamId;
+        weaponId[fighterCount] = weapon;
+        animations[fighterCount] = animation;
+        masks[fighterCount] = null;
+        masksWeapon[fighterCount] = null;
+        return fighterCount++;
+    }
+
+    /** Forgets every fighter and hazard (match restart). */
+    public void clear() {
+        Arrays.fill(fighters, 0, fighterCount, null);
+        Arrays.fill(animations, 0, fighterCount, null);
+        Arrays.fill(masks, 0, fighterCount, null);
+        Arrays.fill(masksWeapon, 0, fighterCount, null);
+        fighterCount = 0;
+        hazardCount = 0;
+        hitCount = 0;
+        bodyCount = 0;
+    }
+
+    /** An attack box that isn't a fighter (arena hazard, projectile) for the next resolve() only. */
+    public int addHazard(int x, int y, int w, int h, int damage, int force, int height, int teamId) {
+        if (hazardCount == hazardDamage.length) {
+            int n = hazardCount * 2;
+            hazardBox = Arrays.copyOf(hazardBox, n * 4);
+            hazardDamage = Arrays.copyOf(hazardDamage, n);
+            hazardForce = Arrays.copyOf(hazardForce, n);
+            hazardHeight = Arrays.copyOf(hazardHeight, n);
+            hazardTeam = Arrays.copyOf(hazardTeam, n);
+        }
+        int i = hazardCount++;
+        hazardBox[i * 4] = x;
+        hazardBox[i * 4 + 1] = y;
+        hazardBox[i * 4 + 2] = w;
+        hazardBox[i * 4 + 3] = h;
+        hazardDamage[i] = damage;
+        hazardForce[i] = force;
+        hazardHeight[i] = height;
+        hazardTeam[i] = teamId;
+        return i;
+    }
+
+    // =========================
+    //         RESOLVE
+    // =========================
+
+    /** Collects boxes from the current fighter state and fills the contact lists. */
+    public void resolve() {
+        collectBoxes();
+        sortByMinX();
+        sweep();
+
+        Arrays.sort(hits, 0, hitCount);
+        Arrays.sort(bodies, 0, bodyCount);
+    }
+
+    /** Hazards only live for one tick. */
+    public void endTick() {
+        hazardCount = 0;
+    }
+
+    private void collectBoxes() {
+        boxCount = 0;
+        for (int f = 0; f < fighterCount; f++) {
+            Player p = fighters[f];
+            addBox(BODY, f, p.getX(), p.getY(), p.getWidth(), p.getHeight());
+
+            Rectangle hurt = p.getHurtbox();
+            if (hurt != null) addBox(HURT, f, hurt.x, hurt.y, hurt.width, hurt.height);
+
+            // one hit per attack: an attack that already landed has no box
+            if (p.isAttacking() && !p.hasHitThisAttack()) {
+                Rectangle attack = p.getAttackHitbox();
+                if (attack != null) addBox(ATTACK, f, attack.x, attack.y, attack.width, attack.height);
+            }
+        }
+        for (int h = 0; h < hazardCount; h++) {
+            addBox(ATTACK, fighterCount + h,
+                    hazardBox[h * 4], hazardBox[h * 4 + 1], hazardBox[h * 4 + 2], hazardBox[h * 4 + 3]);
+        }
+    }
+
+    private void addBox(int k, int ownerId, int x, int y, int w, int h) {
+        if (boxCount == minX.length) {
+            int n = boxCount * 2;
+            minX = Arrays.copyOf(minX, n);
+            maxX = Arrays.copyOf(maxX, n);
+            minY = Arrays.copyOf(minY, n);
+            maxY = Arrays.copyOf(maxY, n);
+            kind = Arrays.copyOf(kind, n);
+            owner = Arrays.copyOf(owner, n);
+            order = Arrays.copyOf(order, n);
+            active = Arrays.copyOf(active, n);
+        }
+        int b = boxCount++;
+        minX[b] = x;
+        maxX[b] = x + w;
+        minY[b] = y;
+        maxY[b] = y + h;
+        kind[b] = k;
+        owner[b] = ownerId;
+    }
+
+    // insertion sort on (minX, box index): boxes are few and mostly in last tick's order
+    private void sortByMinX() {
+        for (int i = 0; i < boxCount; i++) order[i] = i;
+        for (int i = 1; i < boxCount; i++) {
+            int b = order[i];
+            int j = i - 1;
+            while (j >= 0 && (minX[order[j]] > minX[b] || (minX[order[j]] == minX[b] && order[j] > b))) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = b;
+        }
+    }
+
+    private void sweep() {
+        hitCount = 0;
+        bodyCount = 0;
+        int activeCount = 0;
+
+        for (int i = 0; i < boxCount; i++) {
+            int b = order[i];
+
+            // drop boxes that end before this one starts (same test as Rectangle.intersects)
+            int kept = 0;
+            for (int a = 0; a < activeCount; a++) {
+                if (maxX[active[a]] > minX[b]) active[kept++] = active[a];
+            }
+            activeCount = kept;
+
+            for (int a = 0; a < activeCount; a++) {
+                int o = active[a];
+                if (minY[o] < maxY[b] && minY[b] < maxY[o]) pair(o, b);
+            }
+            active[activeCount++] = b;
+        }
+    }
+
+    private void pair(int a, int b) {
+        if (owner[a] == owner[b]) return;
+
+        if (kind[a] == BODY && kind[b] == BODY) {
+            // bodies only exist for fighters, hazards never push
+            addBody(Math.min(owner[a], owner[b]), Math.max(owner[a], owner[b]));
+        } else if (kind[a] == ATTACK && kind[b] == HURT) {
+            if (canHit(owner[a], owner[b]) && maskHits(a, b)) addHit(owner[a], owner[b]);
+        } else if (kind[a] == HURT && kind[b] == ATTACK) {
+            if (canHit(owner[b], owner[a]) && maskHits(b, a)) addHit(owner[b], owner[a]);
+        }
+    }
+
+    // team + dodge rules: jump beats LOW, crouch beats HIGH, dodging beats everything
+    private boolean canHit(int attacker, int target) {
+        int attackerTeam;
+        boolean low;
+        boolean high;
+
+        if (attacker < fighterCount) {
+            Player p = fighters[attacker];
+            attackerTeam = team[attacker];
+            low = p.getAttackHeight() == Player.AttackHeight.LOW;
+            high = p.getAttackHeight() == Player.AttackHeight.HIGH;
+        } else {
+            int h = attacker - fighterCount;
+            attackerTeam = hazardTeam[h];
+            low = hazardHeight[h] == MoveTable.HEIGHT_LOW;
+            high = hazardHeight[h] == MoveTable.HEIGHT_HIGH;
+        }
+        if (attackerTeam != NO_TEAM && attackerTeam == team[target]) return false;
+
+        Player t = fighters[target];
+        if (t.isJumping() && low) return false;
+        if (t.isCrouching() && high) return false;
+        return !t.isDodging();
+    }
+
+    // pixel test of the attacker's current weapon frame against the hurt box (boxes already overlap)
+    private boolean maskHits(int attackBox, int hurtBox) {
+        int f = owner[attackBox];
+        if (f >= fighterCount) return true; // hazards are plain boxes
+
+        AnimationController animation = animations[f];
+        if (animation == null || !animation.hasFrames()) return true;
+
+        HitMask[] frames = masksFor(f, animation);
+        if (frames == null || frames.length == 0) return true;
+
+        HitMask mask = frames[Math.min(animation.getFrameIndex(), frames.length - 1)];
+
+        Player p = fighters[f];
+        boolean facingLeft = minX[attackBox] + maxX[attackBox] < 2 * p.getX() + p.getWidth();
+        int mx = facingLeft ? maxX[attackBox] - mask.getWidth() : minX[attackBox];
+
+        // only the part of the frame inside the attack box counts
+        int rx = Math.max(minX[hurtBox], minX[attackBox]);
+        int ry = Math.max(minY[hurtBox], minY[attackBox]);
+        int rw = Math.min(maxX[hurtBox], maxX[attackBox]) - rx;
+        int rh = Math.min(maxY[hurtBox], maxY[attackBox]) - ry;
+        return mask.hitsRect(facingLeft ? -1 : 1, mx, minY[attackBox], rx, ry, rw, rh);
+    }
+
+    // cached per fighter: a map lookup only when the animation's move changes
+    private HitMask[] masksFor(int f, AnimationController animation) {
+        int type = animation.getAttackType();
+        String weapon = animation.getWeaponType();
+        if (masks[f] == null || masksType[f] != type || masksWeapon[f] != weapon) {
+            masks[f] = SpriteRepository.getHitMasks(weapon, type);
+            masksType[f] = type;
+            masksWeapon[f] = weapon;
+        }
+        return masks[f];
+    }
+
+    private void addHit(int attacker, int target) {
+        if (hitCount == hits.length) hits = Arrays.copyOf(hits, hitCount * 2);
+        hits[hitCount++] = ((long) attacker << 32) | target;
+    }
+
+    private void addBody(int a, int b) {
+        if (bodyCount == bodies.length) bodies = Arrays.copyOf(bodies, bodyCount * 2);
+        bodies[bodyCount++] = ((long) a << 32) | b;
+    }
+
+    // =========================
+    //         CONTACTS
+    // =========================
+    public int getHitCount() { return hitCount; }
+
+    /** Fighter index of the attacker, or -1 if hit i came from a hazard. */
+    public int getHitAttacker(int i) {
+        int a = (int) (hits[i] >>> 32);
+        return a < fighterCount ? a : -1;
+    }
+
+    /** Hazard index of the attacker, or -1 if hit i came from a fighter. */
+    public int getHitHazard(int i) {
+        int a = (int) (hits[i] >>> 32);
+        return a >= fighterCount ? a - fighterCount : -1;
+    }
+
+    public int getHitTarget(int i) { return (int) hits[i]; }
+
+    public int getBodyCount() { return bodyCount; }
+    public int getBodyA(int i) { return (int) (bodies[i] >>> 32); }
+    public int getBodyB(int i) { return (int) bodies[i]; }
+
+    // =========================
+    //         GETTERS
+    // =========================
+    public int getFighterCount() { return fighterCount; }
+    public Player getFighter(int i) { return fighters[i]; }
+    public int getTeam(int i) { return team[i]; }
+    public int getWeaponId(int i) { return weaponId[i]; }
+
+    public int getHazardX(int h) { return hazardBox[h * 4]; }
+    public int getHazardWidth(int h) { return hazardBox[h * 4 + 2]; }
+    public int getHazardDamage(int h) { return hazardDamage[h]; }
+    public int getHazardForce(int h) { return hazardForce[h]; }
+}
@@ -0,0 +1,60 @@
+package game;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * InputRing - lock-free single-producer / single-consumer ring of key events.
+ * Producer: the EDT (KeyHandler.keyPressed/keyReleased). Consumer: the game thread (KeyHandler.poll).
+ *
+ * Each event is a key code, a down/up flag and a System.nanoTime() stamp, kept in primitive arrays.
+ */
+public class InputRing {
+
+    private final int[] codes;      // keyCode << 1 | down
+    private final long[] times;
+    private final int mask;
+
+    // tail: next slot to write (producer), head: next slot to read (consumer)
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public InputRing(int capacityPowerOfTwo) {
+        if (Integer.bitCount(capacityPowerOfTwo) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacityPowerOfTwo);
+        }
+        codes = new int[capacityPowerOfTwo];
+        times = new long[capacityPowerOfTwo];
+        mask = capacityPowerOfTwo - 1;
+    }
+
+    /** Producer side. Returns false (event dropped) only if the consumer is a full ring behind. */
+    public boolean offer(int keyCode, boolean down, long nanoTime) {
+        long t = tail.get();
+        if (t - head.get() > mask) return false;
+
+        int slot = (int) (t & mask);
+        codes[slot] = (keyCode << 1) | (down ? 1 : 0);
+        times[slot] = nanoTime;
+        tail.lazySet(t + 1); // publish after the slot is written
+        return true;
+    }
+
+    /** Consumer side: hands every pending event to the sink, returns how many were drained. */
+    public int drain(Sink sink) {
+        long h = head.get();
+        long t = tail.get();
+        int n = 0;
+
+        for (; h < t; h++, n++) {
+            int slot = (int) (h & mask);
+            int packed = codes[slot];
+            sink.onKey(packed >>> 1, (packed & 1) != 0, times[slot]);
+        }
+        head.lazySet(h); // free the slots
+        return n;
+    }
+
+    public interface Sink {
+        void onKey(int keyCode, boolean down, long nanoTime);
+    }
+}
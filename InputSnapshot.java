@@ -0,0 +1,60 @@
+package game;
+
+/**
+ * InputSnapshot - one player's buttons for one tick, packed into an int:
+ *   bits  0..7  held this tick
+ *   bits  8..15 pressed this tick  (went down since last tick)
+ *   bits 16..23 released this tick (went up since last tick)
+ *
+ * An int is immutable and free to create, so the game thread can build one per player per tick
+ * without allocating. Button bits are the same for both players.
+ */
+public final class InputSnapshot {
+
+    public static final int LEFT   = 1;
+    public static final int RIGHT  = 1 << 1;
+    public static final int UP     = 1 << 2;  // jump
+    public static final int DOWN   = 1 << 3;  // crouch
+    public static final int DODGE  = 1 << 4;
+    public static final int BASIC  = 1 << 5;
+    public static final int SKILL1 = 1 << 6;
+    public static final int SKILL2 = 1 << 7;
+
+    public static final int BUTTONS = 0xff;
+    public static final int NONE = 0;
+
+    private InputSnapshot() {}
+
+    /** Snapshot for this tick, with edges computed against last tick's held buttons. */
+    public static int of(int held, int previousHeld) {
+        held &= BUTTONS;
+        previousHeld &= BUTTONS;
+        int pressed = held & ~previousHeld;
+        int released = previousHeld & ~held;
+        return held | (pressed << 8) | (released << 16);
+    }
+
+    public static int held(int snapshot) {
+        return snapshot & BUTTONS;
+    }
+
+    public static int pressed(int snapshot) {
+        return (snapshot >>> 8) & BUTTONS;
+    }
+
+    public static int released(int snapshot) {
+        return (snapshot >>> 16) & BUTTONS;
+    }
+
+    public static boolean isHeld(int snapshot, int button) {
+        return (snapshot & button) != 0;
+    }
+
+    public static boolean wasPressed(int snapshot, int button) {
+        return (pressed(snapshot) & button) != 0;
+    }
+
+    public static boolean wasReleased(int snapshot, int button) {
+        return (released(snapshot) & button) != 0;
+    }
+}
@@ -2,10 +2,20 @@ package game;
 
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * KeyHandler - maps keyboard input to boolean flags used by Player.
  *
+ * Key events never touch the flags directly: keyPressed/keyReleased (EDT) push them into a
+ * lock-free InputRing, and the game thread calls poll() once per tick to drain it into one
+ * InputSnapshot per player and write the flags. A press + release inside one tick still shows
+ * as held for that tick, so short taps are not lost.
+ *
+ * The ring can fill up while nobody polls (paused, loop stalled). The EDT also keeps which keys are
+ * down right now in one int that can't overflow; if an event had to be dropped, the next poll()
+ * resets the held buttons from it, so a lost release never leaves a key stuck down.
+ *
  * Player 1:
  *   Movement: A D W S
  *   Dodge: Q
@@ -22,6 +32,7 @@ import java.awt.event.KeyListener;
  */
 public class KeyHandler implements KeyListener {
 
+    // The flags below are only written on the game thread (poll / applySnapshot)
     public boolean enterPressed = false;
 
     // Player 1 movement
@@ -42,71 +53,182 @@ public class KeyHandler implements KeyListener {
     public boolean commaPressed;  // skill 1 (,)
     public boolean mPressed;      // skill 2 (M)
 
+    private final InputRing events = new InputRing(1024);
+
+    // EDT state: buttons down right now (p1 bits, p2 bits << 8, ENTER_BIT), and whether an event was dropped
+    private static final int ENTER_BIT = 1 << 16;
+    private volatile int keysDown;
+    private final AtomicBoolean dropped = new AtomicBoolean();
+
+    // game thread state
+    private int p1Held, p2Held;                 // InputSnapshot button bits
+    private int p1TapRelease, p2TapRelease;     // released in the same tick they were pressed
+    private boolean enterHeld, enterTapRelease;
+    private int p1Down, p2Down;                 // went down during the current drain
+    private boolean enterDown;
+    private int p1Snapshot = InputSnapshot.NONE;
+    private int p2Snapshot = InputSnapshot.NONE;
+
+    private final InputRing.Sink sink = this::onKey;
+
     @Override
     public void keyTyped(KeyEvent e) { /* not used */ }
 
     @Override
     public void keyPressed(KeyEvent e) {
-        int code = e.getKeyCode();
+        onEdt(e.getKeyCode(), true);
+    }
 
-        if (code == KeyEvent.VK_ENTER) {
-            enterPressed = true;
+    @Override
+    public void keyReleased(KeyEvent e) {
+        onEdt(e.getKeyCode(), false);
+    }
+
+    // EDT: the down mask first (the only writer, so no CAS), then the event
+    private void onEdt(int code, boolean down) {
+        int bit = code == KeyEvent.VK_ENTER ? ENTER_BIT : player1Button(code) | player2Button(code) << 8;
+        if (bit != 0) keysDown = down ? keysDown | bit : keysDown & ~bit;
+
+        if (!events.offer(code, down, System.nanoTime())) dropped.set(true);
+    }
+
+    /** Game thread, once per tick: drain key events, build snapshots, update the flags. */
+    public void poll() {
+        int p1Prev = p1Held;
+        int p2Prev = p2Held;
+
+        // taps from last tick are released now
+        p1Held &= ~p1TapRelease;
+        p2Held &= ~p2TapRelease;
+        if (enterTapRelease) enterHeld = false;
+        p1TapRelease = p2TapRelease = 0;
+        enterTapRelease = false;
+
+        p1Down = p2Down = 0;
+        enterDown = false;
+
+        boolean resync = dropped.getAndSet(false); // before draining: a drop during the drain waits for the next poll
+
+        events.drain(sink);
+
+        if (resync) {
+            // some events never made it into the ring: take the real key state (taps still count)
+            int down = keysDown;
+            p1Held = (down & 0xFF) | p1TapRelease;
+            p2Held = (down >>> 8 & 0xFF) | p2TapRelease;
+            enterHeld = (down & ENTER_BIT) != 0 || enterTapRelease;
         }
 
-        // --- Player 1 movement ---
-        if (code == KeyEvent.VK_A) aPressed = true;
-        if (code == KeyEvent.VK_D) dPressed = true;
-        if (code == KeyEvent.VK_W) wPressed = true;
-        if (code == KeyEvent.VK_S) sPressed = true;
-
-        // --- Player 1 dodge & attacks ---
-        if (code == KeyEvent.VK_Q) qPressed = true;    // dodge
-        if (code == KeyEvent.VK_E) ePressed = true;    // basic attack
-        if (code == KeyEvent.VK_R) rPressed = true;    // skill 1
-        if (code == KeyEvent.VK_T) tPressed = true;    // skill 2
-
-        // --- Player 2 movement ---
-        if (code == KeyEvent.VK_LEFT) leftPressed = true;
-        if (code == KeyEvent.VK_RIGHT) rightPressed = true;
-        if (code == KeyEvent.VK_UP) upPressed = true;
-        if (code == KeyEvent.VK_DOWN) downPressed = true;
-
-        // --- Player 2 dodge & attacks ---
-        if (code == KeyEvent.VK_SLASH) slashPressed = true;        // dodge ('/')
-        if (code == KeyEvent.VK_PERIOD) periodPressed = true;      // basic attack (.)
-        if (code == KeyEvent.VK_COMMA) commaPressed = true;        // skill 1 (,)
-        if (code == KeyEvent.VK_M) mPressed = true;                // skill 2 (M)
+        p1Snapshot = InputSnapshot.of(p1Held, p1Prev);
+        p2Snapshot = InputSnapshot.of(p2Held, p2Prev);
+
+        enterPressed = enterHeld;
+        applySnapshot(1, p1Snapshot);
+        applySnapshot(2, p2Snapshot);
     }
 
-    @Override
-    public void keyReleased(KeyEvent e) {
-        int code = e.getKeyCode();
+    /** This tick's keyboard snapshot for player 1 or 2. */
+    public int getSnapshot(int player) {
+        return player == 1 ? p1Snapshot : p2Snapshot;
+    }
 
+    /** Writes a snapshot into the flags Player reads (game thread only). Used by poll() and the AI. */
+    public void applySnapshot(int player, int snapshot) {
+        if (player == 1) {
+            // --- Player 1 movement ---
+            aPressed = InputSnapshot.isHeld(snapshot, InputSnapshot.LEFT);
+            dPressed = InputSnapshot.isHeld(snapshot, InputSnapshot.RIGHT);
+            wPressed = InputSnapshot.isHeld(snapshot, InputSnapshot.UP);
+            sPressed = InputSnapshot.isHeld(snapshot, InputSnapshot.DOWN);
+
+            // --- Player 1 dodge & attacks ---
+            qPressed = InputSnapshot.isHeld(snapshot, InputSnapshot.DODGE);
+            ePressed = InputSnapshot.isHeld(snapshot, InputSnapshot.BASIC);
+            rPressed = InputSnapshot.isHeld(snapshot, InputSnapshot.SKILL1);
+            tPressed = InputSnapshot.isHeld(snapshot, InputSnapshot.SKILL2);
+        } else {
+            // --- Player 2 movement ---
+            leftPressed = InputSnapshot.isHeld(snapshot, InputSnapshot.LEFT);
+            rightPressed = InputSnapshot.isHeld(snapshot, InputSnapshot.RIGHT);
+            upPressed = InputSnapshot.isHeld(snapshot, InputSnapshot.UP);
+            downPressed = InputSnapshot.isHeld(snapshot, InputSnapshot.DOWN);
+
+            // --- Player 2 dodge & attacks ---
+            slashPressed = InputSnapshot.isHeld(snapshot, InputSnapshot.DODGE);
+            periodPressed = InputSnapshot.isHeld(snapshot, InputSnapshot.BASIC);
+            commaPressed = InputSnapshot.isHeld(snapshot, InputSnapshot.SKILL1);
+            mPressed = InputSnapshot.isHeld(snapshot, InputSnapshot.SKILL2);
+        }
+    }
+
+    private void onKey(int code, boolean down, long nanoTime) {
         if (code == KeyEvent.VK_ENTER) {
-            enterPressed = false;
+            if (down) {
+                enterHeld = true;
+                enterDown = true;
+            } else if (enterDown) {
+                enterTapRelease = true;
+            } else {
+                enterHeld = false;
+            }
+            return;
+        }
+
+        int p1Bit = player1Button(code);
+        if (p1Bit != 0) {
+            if (down) {
+                p1Held |= p1Bit;
+                p1Down |= p1Bit;
+            } else if ((p1Down & p1Bit) != 0) {
+                p1TapRelease |= p1Bit; // keep it held for this tick
+            } else {
+                p1Held &= ~p1Bit;
+            }
+            return;
+        }
+
+        int p2Bit = player2Button(code);
+        if (p2Bit != 0) {
+            if (down) {
+                p2Held |= p2Bit;
+                p2Down |= p2Bit;
+            } else if ((p2Down & p2Bit) != 0) {
+                p2TapRelease |= p2Bit;
+            } else {
+                p2Held &= ~p2Bit;
+            }
+        }
+    }
+
+    private static int player1Button(int code) {
+        switch (code) {
+            // --- Player 1 movement ---
+            case KeyEvent.VK_A: return InputSnapshot.LEFT;
+            case KeyEvent.VK_D: return InputSnapshot.RIGHT;
+            case KeyEvent.VK_W: return InputSnapshot.UP;
+            case KeyEvent.VK_S: return InputSnapshot.DOWN;
+            // --- Player 1 dodge & attacks ---
+            case KeyEvent.VK_Q: return InputSnapshot.DODGE;   // dodge
+            case KeyEvent.VK_E: return InputSnapshot.BASIC;   // basic attack
+            case KeyEvent.VK_R: return InputSnapshot.SKILL1;  // skill 1
+            case KeyEvent.VK_T: return InputSnapshot.SKILL2;  // skill 2
+            default: return 0;
+        }
+    }
+
+    private static int player2Button(int code) {
+        switch (code) {
+            // --- Player 2 movement ---
+            case KeyEvent.VK_LEFT:   return InputSnapshot.LEFT;
+            case KeyEvent.VK_RIGHT:  return InputSnapshot.RIGHT;
+            case KeyEvent.VK_UP:     return InputSnapshot.UP;
+            case KeyEvent.VK_DOWN:   return InputSnapshot.DOWN;
+            // --- Player 2 dodge & attacks ---
+            case KeyEvent.VK_SLASH:  return InputSnapshot.DODGE;   // dodge ('/')
+            case KeyEvent.VK_PERIOD: return InputSnapshot.BASIC;   // basic attack (.)
+            case KeyEvent.VK_COMMA:  return InputSnapshot.SKILL1;  // skill 1 (,)
+            case KeyEvent.VK_M:      return InputSnapshot.SKILL2;  // skill 2 (M)
+            default: return 0;
         }
-        // --- Player 1 movement ---
-        if (code == KeyEvent.VK_A) aPressed = false;
-        if (code == KeyEvent.VK_D) dPressed = false;
-        if (code == KeyEvent.VK_W) wPressed = false;
-        if (code == KeyEvent.VK_S) sPressed = false;
-
-        // --- Player 1 dodge & attacks ---
-        if (code == KeyEvent.VK_Q) qPressed = false;
-        if (code == KeyEvent.VK_E) ePressed = false;
-        if (code == KeyEvent.VK_R) rPressed = false;
-        if (code == KeyEvent.VK_T) tPressed = false;
-
-        // --- Player 2 movement ---
-        if (code == KeyEvent.VK_LEFT) leftPressed = false;
-        if (code == KeyEvent.VK_RIGHT) rightPressed = false;
-        if (code == KeyEvent.VK_UP) upPressed = false;
-        if (code == KeyEvent.VK_DOWN) downPressed = false;
-
-        // --- Player 2 dodge & attacks ---
-        if (code == KeyEvent.VK_SLASH) slashPressed = false;
-        if (code == KeyEvent.VK_PERIOD) periodPressed = false;
-        if (code == KeyEvent.VK_COMMA) commaPressed = false;
-        if (code == KeyEvent.VK_M) mPressed = false;
     }
 }
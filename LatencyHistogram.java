@@ -0,0 +1,100 @@
+package game;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram - fixed-size log-linear histogram of nanosecond durations.
+ * - 8 linear sub-buckets per power of two (HdrHistogram style), so any value is kept within 12.5%
+ * - covers 0 ns .. ~18 minutes in 320 buckets, no allocation after construction
+ * - record() is a single atomic increment: safe from the game thread, the EDT and loader threads at once
+ *
+ * The reader drains the live counts into a plain long[] and computes percentiles from that.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;  // 8
+    private static final int MAX_EXPONENT = 40;            // 2^40 ns ~ 18 min
+    public static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(nanos));
+    }
+
+    /** Adds the counts recorded since the last drain into dst (length BUCKETS) and resets them. */
+    public long drainInto(long[] dst) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts.get(i) == 0) continue;
+            long n = counts.getAndSet(i, 0);
+            dst[i] += n;
+            total += n;
+        }
+        return total;
+    }
+
+    // =========================
+    //     BUCKET MATH
+    // =========================
+    static int bucketOf(long v) {
+        if (v < SUB_BUCKETS) return (int) Math.max(0, v);
+        int exponent = 63 - Long.numberOfLeadingZeros(v);
+        if (exponent > MAX_EXPONENT) return BUCKETS - 1;
+        int sub = (int) (v >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /** Lowest value that lands in bucket i. */
+    static long bucketStart(int i) {
+        if (i < SUB_BUCKETS) return i;
+        int exponent = i / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = i % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+    }
+
+    /** Middle of bucket i (what percentiles report). */
+    static long bucketMiddle(int i) {
+        long start = bucketStart(i);
+        long end = i + 1 < BUCKETS ? bucketStart(i + 1) : start * 2;
+        return (start + end) / 2;
+    }
+
+    // =========================
+    //   STATS ON DRAINED COUNTS
+    // =========================
+    public static long total(long[] counts) {
+        long total = 0;
+        for (long c : counts) total += c;
+        return total;
+    }
+
+    /** Value at the given percentile (0..100) of drained counts, 0 if empty. */
+    public static long percentile(long[] counts, long total, double percentile) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return bucketMiddle(i);
+        }
+        return bucketMiddle(counts.length - 1);
+    }
+
+    public static long mean(long[] counts, long total) {
+        if (total == 0) return 0;
+        double sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) sum += counts[i] * (double) bucketMiddle(i);
+        }
+        return (long) (sum / total);
+    }
+
+    public static long max(long[] counts) {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] != 0) return bucketMiddle(i);
+        }
+        return 0;
+    }
+}
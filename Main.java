@@ -5,6 +5,15 @@ import java.awt.Color;
 
 public class Main {
     public static void main(String[] args) {
+        StartupMetrics.mainEntered();
+
+        // backgrounds, sfx and weapon sprites decode in parallel while the menu is up
+        // (countdown beeps and the first match must not stall on a decode)
+        AssetRegistry.preloadAll();
+
+        // section timers + F3 overlay (-Dgame.metrics.csv=<file> also dumps them periodically)
+        Metrics.start();
+
         JFrame window = new JFrame("Stickman Brawl");
         window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         window.setResizable(false);
@@ -13,8 +22,7 @@ public class Main {
         window.getContentPane().setBackground(Color.BLACK);
 
         // Start with MenuPanel instead of GamePanel
-        MenuPanel menu = new MenuPanel(window);
-        window.add(menu);
+        SceneManager.show(window, new MenuPanel(window));
 
         window.pack();
         window.setLocationRelativeTo(null);
@@ -0,0 +1,504 @@
+package game;
+
+import java.awt.Color;
+import java.util.Random;
+
+import game.entities.Player;
+
+/**
+ * MatchSimulation - the match rules without any Swing:
+ * - player updates, combat + hit detection, knockback, body collision
+ * - countdown (tick based) and win conditions
+ * - damage popups (DamageTextPool)
+ * - particles, only when a renderer hands in a ParticleSystem (setParticles): sparks on hits, dust
+ *   on landing, afterimages while dodging. Headless matches (tournament, replays, net) skip them
+ *
+ * step(p1Input, p2Input) advances exactly one tick from two InputSnapshots, so a match can run
+ * headless as fast as the CPU allows. GamePanel is only a renderer + input source on top of this.
+ * Sounds and other side effects go through Listener.
+ * Time is the match's GameClock: one tick per step(), whatever the wall clock does.
+ */
+public class MatchSimulation {
+
+    public static final int TICK_RATE = GameClock.TICK_RATE;
+
+    // countdown: "3", "2", "1" one second each, then "FIGHT!" for one more second
+    private static final int COUNTDOWN_FROM = 3;
+    private static final int COUNTDOWN_TICKS = (COUNTDOWN_FROM + 1) * TICK_RATE;
+
+    /** Match events for sound / stats. All callbacks run on the thread calling step(). */
+    public interface Listener {
+        default void onCountdown(int number) {}
+        default void onFight() {}
+        /** attacker: 1 or 2, or 0 for a hazard. */
+        default void onHit(int attacker, int attackType, int damage, int force) {}
+        default void onMatchOver(int winner) {}
+    }
+
+    private static final Listener NO_LISTENER = new Listener() {};
+
+    private final String p1Weapon;
+    private final String p2Weapon;
+    private final int p1WeaponId;   // MoveTable ids, resolved once so hits are array lookups
+    private final int p2WeaponId;
+    private final int width;
+    private final int height;
+    private final int groundOffset = 100;
+
+    // flags Player reads; filled from the snapshots each tick (never attached to a component)
+    private final KeyHandler input = new KeyHandler();
+
+    private Player player1;
+    private Player player2;
+
+    // Damage popups: fixed ring buffer, nothing allocated per hit
+    private static final int DAMAGE_TEXT_CAPACITY = 64;
+    private final DamageTextPool damageTexts = new DamageTextPool(DAMAGE_TEXT_CAPACITY);
+
+    // Particles: owned by the renderer, null when nobody draws them. Cosmetic only
+    // (own seeded Random, never read by the rules)
+    private static final int AFTERIMAGE_EVERY_TICKS = 3;
+    private ParticleSystem particles;
+    private final Random particleRng = new Random(1);
+    private boolean p1WasJumping, p2WasJumping;
+
+    // broadphase + contact lists; player1 and player2 are fighters 0 and 1 on teams 0 and 1
+    private final HitResolver hits = new HitResolver();
+    private static final String HAZARD_WEAPON = "Hazard"; // weaponType passed to takeDamage for hazard hits
+
+    private Listener listener = NO_LISTENER;
+    private boolean resimulating;   // replaying ticks that already ran once: no listener calls, no particles
+
+    private final GameClock clock;
+
+    // cooldowns in whole seconds, [player 0/1 * 4 + slot - 1], read from the players once per tick
+    // so the HUD doesn't ask Player (which checks the time) for each of them every frame
+    private final int[] cooldownSeconds = new int[8];
+
+    private int tick;               // ticks since (re)start
+    private int countdownTick;
+    private int countdown;
+    private boolean countdownFinished;
+    private boolean playedFightSound;
+
+    private boolean gameOver;
+    private int winner;             // 0 = none yet, 1 or 2
+    private String winnerText = "";
+
+    public MatchSimulation(String p1Weapon, String p2Weapon, int width, int height) {
+        this(p1Weapon, p2Weapon, width, height, new GameClock());
+    }
+
+    /** With a given clock (shared with whatever paces or inspects this match). */
+    public MatchSimulation(String p1Weapon, String p2Weapon, int width, int height, GameClock clock) {
+        this.clock = clock;
+        this.p1Weapon = p1Weapon;
+        this.p2Weapon = p2Weapon;
+        this.p1WeaponId = MoveTable.weaponId(p1Weapon);
+        this.p2WeaponId = MoveTable.weaponId(p2Weapon);
+        this.width = width;
+        this.height = height;
+        restart();
+    }
+
+    /** Where sparks / dust / afterimages go from now on, or null for none (the default). */
+    public void setParticles(ParticleSystem particles) {
+        this.particles = particles;
+        if (particles != null) particles.clear();
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener != null ? listener : NO_LISTENER;
+    }
+
+    /**
+     * Ticks run from here on were already shown once (NetSession re-simulating after a rollback,
+     * ReplayPlayer fast-forwarding to a seek target): sounds and particles are left out.
+     */
+    public void setResimulating(boolean resimulating) {
+        this.resimulating = resimulating;
+    }
+
+    /** Fresh players, countdown and popups. */
+    public void restart() {
+        int groundY = height - groundOffset;
+
+        // whatever the players create (AnimationController) runs on this match's clock;
+        // each Player's own controller is picked up right after it is built (HitResolver reads its frame)
+        AnimationController p1Animation, p2Animation;
+        GameClock previous = GameClock.bind(clock);
+        try {
+            AnimationController.takeLastCreated();
+            player1 = new Player(150, groundY, Color.CYAN, input, true, p1Weapon);
+            p1Animation = AnimationController.takeLastCreated();
+            player2 = new Player(600, groundY, Color.ORANGE, input, false, p2Weapon);
+            p2Animation = AnimationController.takeLastCreated();
+        } finally {
+            GameClock.unbind(previous);
+        }
+
+        player1.setGroundY(groundY);
+        player2.setGroundY(groundY);
+
+        player1.setPanelWidth(width);
+        player2.setPanelWidth(width);
+
+        readCooldowns();
+
+        hits.clear();
+        hits.addFighter(player1, 0, p1WeaponId, p1Animation);
+        hits.addFighter(player2, 1, p2WeaponId, p2Animation);
+
+        damageTexts.clear();
+        if (particles != null) particles.clear();
+        particleRng.setSeed(1);
+        p1WasJumping = false;
+        p2WasJumping = false;
+
+        tick = 0;
+        countdownTick = 0;
+        countdown = COUNTDOWN_FROM;
+        countdownFinished = false;
+        playedFightSound = false;
+
+        gameOver = false;
+        winner = 0;
+        winnerText = "";
+    }
+
+    /** Skips the "3, 2, 1, FIGHT" intro (batch runs). */
+    public void skipCountdown() {
+        countdown = 0;
+        countdownFinished = true;
+    }
+
+    /** Advances one tick. Inputs are InputSnapshot ints for player 1 and player 2. */
+    public void step(int p1Input, int p2Input) {
+        clock.advance();
+        tick++;
+
+        if (gameOver) return; // stop updating players while game is over
+
+        // =========================================
+        //           COUNTDOWN UPDATE
+        // =========================================
+        if (!countdownFinished) {
+            updateCountdown();
+            return; // freeze game during countdown
+        }
+
+        // Player reads the KeyHandler flags inside its update()
+        input.applySnapshot(1, p1Input);
+        player1.update();
+
+        input.applySnapshot(2, p2Input);
+        player2.update();
+
+        handleCombat(); // hits, then body collision
+        readCooldowns();
+
+        // ===============================
+        //         WIN CONDITION
+        // ===============================
+        if (player1.getHealth() <= 0) {
+            endMatch(2, "PLAYER 2 WINS!");
+        } else if (player2.getHealth() <= 0) {
+            endMatch(1, "PLAYER 1 WINS!");
+        }
+
+        // update damage texts (move & expire)
+        damageTexts.update();
+
+        if (particles != null && !resimulating) {
+            emitMovementParticles();
+            particles.update();
+        }
+    }
+
+    // dust when a jump ends, an afterimage every few ticks of a dodge
+    private void emitMovementParticles() {
+        boolean p1Jumping = player1.isJumping();
+        boolean p2Jumping = player2.isJumping();
+        if (p1WasJumping && !p1Jumping) landingDust(player1);
+        if (p2WasJumping && !p2Jumping) landingDust(player2);
+        p1WasJumping = p1Jumping;
+        p2WasJumping = p2Jumping;
+
+        if (tick % AFTERIMAGE_EVERY_TICKS == 0) {
+            if (player1.isDodging()) particles.afterimage(player1.getX(), player1.getY(), player1.getWidth(), player1.getHeight());
+            if (player2.isDodging()) particles.afterimage(player2.getX(), player2.getY(), player2.getWidth(), player2.getHeight());
+        }
+    }
+
+    private void landingDust(Player p) {
+        particles.dust(p.getX() + p.getWidth() / 2f, p.getY() + p.getHeight(), 14, particleRng);
+    }
+
+    private void updateCountdown() {
+        int elapsed = countdownTick / TICK_RATE; // whole seconds
+        countdownTick++;
+
+        int newCount = COUNTDOWN_FROM - elapsed;
+
+        // number sound ONCE per number
+        if (newCount != countdown && newCount > 0) {
+            countdown = newCount;
+            events().onCountdown(countdown);
+        }
+
+        // When reaching 0 → FIGHT
+        if (newCount <= 0) {
+            countdown = 0;
+
+            if (!playedFightSound) {
+                events().onFight();
+                playedFightSound = true;
+            }
+
+            // finish countdown after 1 more second
+            if (countdownTick >= COUNTDOWN_TICKS) {
+                countdownFinished = true;
+            }
+        }
+    }
+
+    private void endMatch(int winner, String text) {
+        gameOver = true;
+        this.winner = winner;
+        winnerText = text;
+        events().onMatchOver(winner);
+    }
+
+    // HIT DETECTION: HitResolver finds the contacts (any number of fighters / hazards),
+    // this applies them in its sorted order. Package-private for the benchmarks.
+    void handleCombat() {
+        long t = Metrics.begin();
+        hits.resolve();
+
+        for (int i = 0; i < hits.getHitCount(); i++) {
+            int a = hits.getHitAttacker(i);
+            Player target = hits.getFighter(hits.getHitTarget(i));
+
+            if (a >= 0) {
+                Player attacker = hits.getFighter(a);
+                int dmg = attacker.getCurrentAttackDamage();
+
+                int force = MoveTable.knockback(hits.getWeaponId(a), attacker.getAttackType());
+                if (force < 0) force = Math.abs(force);
+
+                int dir = (attacker.getX() < target.getX()) ? 1 : -1;
+
+                target.takeDamage(dmg, dir, force, attacker.getAttackType(), attacker.getWeaponType());
+
+                nudgeApartAfterHit(attacker, target, dir);
+
+                damageTexts.spawn(target.getX() + target.getWidth()/2, target.getY() - 8, dmg);
+                if (particles != null && !resimulating) hitSparks(target, dir, dmg);
+                events().onHit(a + 1, attacker.getAttackType(), dmg, force);
+            } else {
+                int h = hits.getHitHazard(i);
+                int dmg = hits.getHazardDamage(h);
+                int force = hits.getHazardForce(h);
+                int hazardCenter = hits.getHazardX(h) + hits.getHazardWidth(h) / 2;
+                int dir = (hazardCenter < target.getX() + target.getWidth() / 2) ? 1 : -1;
+
+                target.takeDamage(dmg, dir, force, 0, HAZARD_WEAPON);
+
+                damageTexts.spawn(target.getX() + target.getWidth()/2, target.getY() - 8, dmg);
+                if (particles != null && !resimulating) hitSparks(target, dir, dmg);
+                events().onHit(0, 0, dmg, force);
+            }
+        }
+
+        // one registered hit per attack, even if it caught several fighters this tick
+        int last = -1;
+        for (int i = 0; i < hits.getHitCount(); i++) {
+            int a = hits.getHitAttacker(i);
+            if (a >= 0 && a != last) hits.getFighter(a).registerAttackHit();
+            last = a;
+        }
+
+        // body pushes (every overlapping pair, not just player1/player2)
+        for (int i = 0; i < hits.getBodyCount(); i++) {
+            checkPlayerCollision(hits.getFighter(hits.getBodyA(i)), hits.getFighter(hits.getBodyB(i)));
+        }
+
+        hits.endTick();
+        Metrics.end(Metrics.COMBAT, t);
+    }
+
+    private Listener events() {
+        return resimulating ? NO_LISTENER : listener;
+    }
+
+    // sparks fly the way the hit pushes, more for bigger hits
+    private void hitSparks(Player target, int dir, int dmg) {
+        particles.sparks(target.getX() + target.getWidth() / 2f, target.getY() + target.getHeight() / 3f,
+                dir, 10 + Math.min(40, dmg * 2), particleRng);
+    }
+
+    // Small helper to nudge target away from attacker after hit to prevent overlap-pulling glitches.
+    private void nudgeApartAfterHit(Player attacker, Player target, int dir) {
+        int minGap = 2; // pixels gap to ensure separation
+        if (attacker.getX() < target.getX()) {
+            int desiredX = attacker.getX() + attacker.getWidth() + minGap;
+            if (target.getX() < desiredX) {
+                target.setX(desiredX);
+            } else {
+                target.setX(target.getX() + dir * Math.max(1, (int)Math.round((double)dir * 1)));
+            }
+        } else {
+            int desiredX = attacker.getX() - target.getWidth() - minGap;
+            if (target.getX() > desiredX) {
+                target.setX(desiredX);
+            } else {
+                target.setX(target.getX() + dir * Math.max(1, (int)Math.round((double)dir * 1)));
+            }
+        }
+    }
+
+    void checkPlayerCollision(Player p1, Player p2) {
+        if (p1.getX() < p2.getX() + p2.getWidth() &&
+                p1.getX() + p1.getWidth() > p2.getX() &&
+                p1.getY() < p2.getY() + p2.getHeight() &&
+                p1.getY() + p1.getHeight() > p2.getY()) {
+
+            int overlapX = Math.min(
+                    p1.getX() + p1.getWidth() - p2.getX(),
+                    p2.getX() + p2.getWidth() - p1.getX()
+            );
+
+            if (p1.getX() < p2.getX()) {
+                p1.setX(p1.getX() - overlapX / 2);
+                p2.setX(p2.getX() + overlapX / 2);
+            } else {
+                p1.setX(p1.getX() + overlapX / 2);
+                p2.setX(p2.getX() - overlapX / 2);
+            }
+        }
+    }
+
+    // =========================
+    //    SNAPSHOTS / CHECKSUM
+    // =========================
+
+    /**
+     * Everything step() changes, so a match can be put back to an earlier tick (NetSession rollback,
+     * ReplayPlayer keyframes). The players are captured field by field (ObjectSnapshot), their
+     * AnimationControllers with them; HitResolver keeps nothing between ticks and MoveTable is config.
+     * Particles are cosmetic and not included. Reused: save() over an old one allocates nothing.
+     */
+    public static final class Snapshot {
+        private final ObjectSnapshot player1 = new ObjectSnapshot();
+        private final ObjectSnapshot player2 = new ObjectSnapshot();
+        private final DamageTextPool damageTexts = new DamageTextPool(DAMAGE_TEXT_CAPACITY);
+        private final int[] cooldownSeconds = new int[8];
+        private long clockTick;
+        private int tick, countdownTick, countdown, winner;
+        private boolean countdownFinished, playedFightSound, gameOver;
+        private boolean p1WasJumping, p2WasJumping;
+        private String winnerText;
+
+        /** The match tick this snapshot was taken at. */
+        public int getTick() { return tick; }
+    }
+
+    public void save(Snapshot s) {
+        s.player1.capture(player1);
+        s.player2.capture(player2);
+        s.damageTexts.copyFrom(damageTexts);
+        System.arraycopy(cooldownSeconds, 0, s.cooldownSeconds, 0, cooldownSeconds.length);
+        s.clockTick = clock.getTick();
+        s.tick = tick;
+        s.countdownTick = countdownTick;
+        s.countdown = countdown;
+        s.countdownFinished = countdownFinished;
+        s.playedFightSound = playedFightSound;
+        s.gameOver = gameOver;
+        s.winner = winner;
+        s.winnerText = winnerText;
+        s.p1WasJumping = p1WasJumping;
+        s.p2WasJumping = p2WasJumping;
+    }
+
+    /** Back to the tick s was saved at (s must come from this match, after its last restart()). */
+    public void restore(Snapshot s) {
+        s.player1.restore(player1);
+        s.player2.restore(player2);
+        damageTexts.copyFrom(s.damageTexts);
+        System.arraycopy(s.cooldownSeconds, 0, cooldownSeconds, 0, cooldownSeconds.length);
+        clock.setTick(s.clockTick);
+        tick = s.tick;
+        countdownTick = s.countdownTick;
+        countdown = s.countdown;
+        countdownFinished = s.countdownFinished;
+        playedFightSound = s.playedFightSound;
+        gameOver = s.gameOver;
+        winner = s.winner;
+        winnerText = s.winnerText;
+        p1WasJumping = s.p1WasJumping;
+        p2WasJumping = s.p2WasJumping;
+    }
+
+    /**
+     * Hash of the state both peers (or a replay and its recording) must agree on: tick, countdown,
+     * result and each fighter's position, health and action (attack, jump, crouch, dodge). Cooldowns are left out, Player times
+     * them on the wall clock.
+     */
+    public int checksum() {
+        int h = tick;
+        h = 31 * h + countdown;
+        h = 31 * h + (gameOver ? winner + 1 : 0);
+        h = 31 * h + checksum(player1);
+        h = 31 * h + checksum(player2);
+        return h;
+    }
+
+    private static int checksum(Player p) {
+        int h = p.getX();
+        h = 31 * h + p.getY();
+        h = 31 * h + p.getHealth();
+        h = 31 * h + (p.isAttacking() ? p.getAttackType() + 1 : 0);
+        h = 31 * h + (p.isJumping() ? 1 : 0);
+        h = 31 * h + (p.isCrouching() ? 1 : 0);
+        h = 31 * h + (p.isDodging() ? 1 : 0);
+        return h;
+    }
+
+    // =========================
+    //         GETTERS
+    // =========================
+    public Player getPlayer1() { return player1; }
+    public Player getPlayer2() { return player2; }
+    public DamageTextPool getDamageTexts() { return damageTexts; }
+    /** Arena hazards / projectiles: addHazard() before step(), they last one tick. */
+    public HitResolver getHitResolver() { return hits; }
+
+    private void readCooldowns() {
+        for (int slot = 1; slot <= 4; slot++) {
+            cooldownSeconds[slot - 1] = player1.getCooldownRemainingSeconds(slot);
+            cooldownSeconds[4 + slot - 1] = player2.getCooldownRemainingSeconds(slot);
+        }
+    }
+
+    /** Cooldown left in whole seconds as of the last tick. player 1 or 2, slot 1 basic .. 4 dodge. */
+    public int getCooldownSeconds(int player, int slot) {
+        return cooldownSeconds[(player - 1) * 4 + slot - 1];
+    }
+
+    /** null unless a renderer set one. */
+    public ParticleSystem getParticles() { return particles; }
+    public GameClock getClock() { return clock; }
+    public int getTick() { return tick; }
+    public int getCountdown() { return countdown; }
+    public boolean isCountdownFinished() { return countdownFinished; }
+
+    public boolean isGameOver() { return gameOver; }
+    public int getWinner() { return winner; }
+    public String getWinnerText() { return winnerText; }
+
+    public String getP1Weapon() { return p1Weapon; }
+    public String getP2Weapon() { return p2Weapon; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+}
@@ -6,11 +6,19 @@ public class MenuButton {
 
     private String text;
     private Rectangle bounds;
+    private Rectangle paintBounds; // bounds + the border drawn on the right / bottom edge
     private boolean hovered = false;
 
+    // Retro colors + pre-rasterized label font (shared by all buttons)
+    private static final Color BG = new Color(60, 40, 30);
+    private static final Color BG_HOVER = new Color(95, 70, 50);
+    private static final Color BORDER = new Color(20, 10, 5);
+    private static final GlyphAtlas TEXT = GlyphAtlas.get("Monospaced", Font.BOLD, 22, Color.WHITE, false);
+
     public MenuButton(String text, int x, int y, int width, int height) {
         this.text = text;
         this.bounds = new Rectangle(x, y, width, height);
+        this.paintBounds = new Rectangle(x, y, width + 1, height + 1);
     }
 
     public void draw(Graphics g) {
@@ -20,28 +28,32 @@ public class MenuButton {
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
 
         // Retro colors
-        Color bg = hovered ? new Color(95, 70, 50) : new Color(60, 40, 30);
+        Color bg = hovered ? BG_HOVER : BG;
         g.setColor(bg);
         g.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
 
         // Pixel-style border (double border)
-        g.setColor(new Color(20, 10, 5));
+        g.setColor(BORDER);
         g.drawRect(bounds.x, bounds.y, bounds.width, bounds.height);
         g.drawRect(bounds.x + 1, bounds.y + 1, bounds.width - 2, bounds.height - 2);
 
         // Pixel-ish text
-        g.setColor(Color.WHITE);
-        g.setFont(new Font("Monospaced", Font.BOLD, 22));
-
-        FontMetrics fm = g.getFontMetrics();
-        int tx = bounds.x + (bounds.width - fm.stringWidth(text)) / 2;
-        int ty = bounds.y + (bounds.height + fm.getAscent()) / 2 - 4;
+        int tx = bounds.x + (bounds.width - TEXT.stringWidth(text)) / 2;
+        int ty = bounds.y + (bounds.height + TEXT.getAscent()) / 2 - 4;
 
-        g.drawString(text, tx, ty);
+        TEXT.drawString(g, text, tx, ty);
     }
 
-    public void setHovered(boolean h) {
+    /** Returns true if the hover state flipped (the button needs a repaint). */
+    public boolean setHovered(boolean h) {
+        if (hovered == h) return false;
         this.hovered = h;
+        return true;
+    }
+
+    /** Area draw() touches: repaint this when the button changes. */
+    public Rectangle getPaintBounds() {
+        return paintBounds;
     }
 
     public boolean contains(int mx, int my) {
@@ -1,19 +1,23 @@
 package game;
 
-import javax.sound.sampled.*;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import javax.imageio.ImageIO;
 import java.util.ArrayList;
 
-public class MenuPanel extends JPanel implements MouseListener, MouseMotionListener {
+public class MenuPanel extends JPanel implements Scene, MouseListener, MouseMotionListener {
 
     private JFrame window;
     private ArrayList<MenuButton> buttons = new ArrayList<>();
     private BufferedImage background;
+    // background, overlay and title: everything but the buttons, composed once
+    private final StaticLayerCache staticLayer = new StaticLayerCache(this::paintStaticLayer);
+
+    private static final String TITLE = "STICK BRAWL";
+    private static final Font TITLE_FONT = new Font("Monospaced", Font.BOLD, 40);
+    private static final Color TITLE_GLOW = new Color(255,255,255,70);
+    private static final Color OVERLAY = new Color(0,0,0,120);
 
     public MenuPanel(JFrame window) {
         this.window = window;
@@ -31,65 +35,57 @@ public class MenuPanel extends JPanel implements MouseListener, MouseMotionListe
     }
 
     private void playClickSound() {
-        try {
-            Clip clip = AudioSystem.getClip();
-            AudioInputStream audioInputStream =
-                    AudioSystem.getAudioInputStream(
-                            getClass().getResource("/game/assets/sfx/click.wav")
-                    );
-
-            clip.open(audioInputStream);
-            clip.start();
-        } catch (Exception e) {
-            System.out.println("Error playing click sound");
-            e.printStackTrace();
-        }
+        SoundPlayer.play(AssetRegistry.SFX_CLICK);
     }
 
+    // decoded by AssetRegistry (queued first at startup), null if missing
     private void loadBackground() {
-        try {
-            background = ImageIO.read(
-                    getClass().getResource("/game/assets/backgrounds/menu_bg.png")
-            );
-        } catch (Exception e) {
-            System.out.println("Could not load menu background.");
-            e.printStackTrace();
-        }
+        background = AssetRegistry.image(AssetRegistry.MENU_BG);
+        if (background == null) System.out.println("Could not load menu background.");
     }
 
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-
-        Graphics2D g2 = (Graphics2D) g;
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
+    private void paintStaticLayer(Graphics2D g2, int width, int height) {
         // Draw background
         if (background != null) {
-            g2.drawImage(background, 0, 0, getWidth(), getHeight(), null);
+            g2.drawImage(background, 0, 0, width, height, null);
         }
 
         // Dark overlay
-        g2.setColor(new Color(0,0,0,120));
-        g2.fillRect(0,0,getWidth(), getHeight());
+        g2.setColor(OVERLAY);
+        g2.fillRect(0,0,width, height);
 
         // Title
-        String title = "STICK BRAWL";
-        g.setFont(new Font("Monospaced", Font.BOLD, 40));
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setFont(TITLE_FONT);
 
-        int titleX = (getWidth() - g.getFontMetrics().stringWidth(title)) / 2;
+        int titleX = (width - g2.getFontMetrics().stringWidth(TITLE)) / 2;
         int titleY = 140;
 
         // Glow
-        g2.setColor(new Color(255,255,255,70));
-        g2.drawString(title, titleX+3, titleY+3);
+        g2.setColor(TITLE_GLOW);
+        g2.drawString(TITLE, titleX+3, titleY+3);
 
         // Main title
         g2.setColor(Color.WHITE);
-        g2.drawString(title, titleX, titleY);
+        g2.drawString(TITLE, titleX, titleY);
+    }
 
-        // Draw buttons
-        for (MenuButton b : buttons) b.draw(g2);
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+
+        Graphics2D g2 = (Graphics2D) g;
+
+        // Background + dark overlay + title (cached, rebuilt only on resize)
+        staticLayer.draw(g2, getWidth(), getHeight());
+
+        StartupMetrics.firstFrame("menu");
+
+        // Draw buttons (a hover repaint only covers the button that changed)
+        Rectangle clip = g.getClipBounds();
+        for (MenuButton b : buttons) {
+            if (clip == null || clip.intersects(b.getPaintBounds())) b.draw(g2);
+        }
     }
 
     @Override
@@ -102,18 +98,8 @@ public class MenuPanel extends JPanel implements MouseListener, MouseMotionListe
                 playClickSound();
 
                 switch (b.getText()) {
-                    case "PLAY (P1 vs P2)" -> {
-                        CharacterSelectPanel cs = new CharacterSelectPanel(window, false);
-                        window.setContentPane(cs);
-                        window.revalidate();
-                        cs.requestFocusInWindow();
-                    }
-                    case "PLAY (P1 vs BOT)" -> {
-                        CharacterSelectPanel cs = new CharacterSelectPanel(window, true);
-                        window.setContentPane(cs);
-                        window.revalidate();
-                        cs.requestFocusInWindow();
-                    }
+                    case "PLAY (P1 vs P2)" -> SceneManager.show(window, new CharacterSelectPanel(window, false));
+                    case "PLAY (P1 vs BOT)" -> SceneManager.show(window, new CharacterSelectPanel(window, true));
                     case "QUIT" -> System.exit(0);
                 }
             }
@@ -124,8 +110,10 @@ public class MenuPanel extends JPanel implements MouseListener, MouseMotionListe
     public void mouseMoved(MouseEvent e) {
         int mx = e.getX();
         int my = e.getY();
-        for (MenuButton b : buttons) b.setHovered(b.contains(mx,my));
-        repaint();
+        // repaint only buttons whose hover state flipped
+        for (MenuButton b : buttons) {
+            if (b.setHovered(b.contains(mx,my))) repaint(b.getPaintBounds());
+        }
     }
 
     // Unused
@@ -0,0 +1,177 @@
+package game;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Metrics - low-overhead timers for the game's sections.
+ *
+ *   long t = Metrics.begin();
+ *   ... work ...
+ *   Metrics.end(Metrics.COMBAT, t);
+ *
+ * - off until start() is called (Main does), so Tournament / benchmarks / replays pay one branch
+ * - end() is one atomic increment in a LatencyHistogram, plus a SectionEvent when JFR records it
+ * - a "metrics" daemon thread drains every section once per second into the numbers the F3
+ *   overlay shows (MetricsOverlay) and, with -Dgame.metrics.csv=<file>, appends a CSV row per
+ *   section every CSV_SECONDS
+ */
+public final class Metrics {
+
+    // ===== sections =====
+    public static final int FRAME = 0;          // time between two presented frames
+    public static final int UPDATE = 1;         // one simulation tick (GamePanel.update)
+    public static final int COMBAT = 2;         // MatchSimulation.handleCombat
+    public static final int AI = 3;             // AIController maybeThink + nextInput
+    public static final int RENDER_BG = 4;
+    public static final int RENDER_PLAYERS = 5; // shadows + players
+    public static final int RENDER_HUD = 6;     // bars, cooldowns, buttons, countdown, win screen
+    public static final int RENDER_TEXT = 7;    // damage popups
+    public static final int SPRITE_LOAD = 8;    // one sprite frame decode
+    public static final int AUDIO_START = 9;    // play() to first mixed sample
+    public static final int RENDER_FX = 10;     // particles
+
+    static final String[] NAMES = {
+            "frame", "update", "combat", "ai", "render_bg", "render_players",
+            "render_hud", "render_text", "sprite_load", "audio_start", "render_fx"
+    };
+    static final int SECTIONS = NAMES.length;
+
+    private static final int CSV_SECONDS = 10;
+
+    private static volatile boolean enabled = false;
+    private static final LatencyHistogram[] live = new LatencyHistogram[SECTIONS];
+    static {
+        for (int i = 0; i < SECTIONS; i++) live[i] = new LatencyHistogram();
+    }
+
+    private static long lastFrameNanos = 0;
+
+    // ===== last second, published by the reporter thread for the overlay =====
+    // plain arrays: the overlay may read a value from the previous second, which is fine
+    static final long[] perSecond = new long[SECTIONS];
+    static final long[] p50 = new long[SECTIONS];
+    static final long[] p99 = new long[SECTIONS];
+    static volatile long gcCount = 0;
+    static volatile long gcPerSecond = 0;
+
+    private Metrics() {}
+
+    /** Turns timing on and starts the reporter (safe to call more than once). */
+    public static synchronized void start() {
+        if (enabled) return;
+        enabled = true;
+
+        Thread reporter = new Thread(Metrics::reportLoop, "metrics");
+        reporter.setDaemon(true);
+        reporter.start();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Start timestamp for end(), or 0 when metrics are off. */
+    public static long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public static void end(int section, long begin) {
+        if (begin == 0) return;
+        record(section, System.nanoTime() - begin);
+    }
+
+    /** Records an already measured duration (e.g. a latency measured across threads). */
+    public static void record(int section, long nanos) {
+        if (!enabled) return;
+        live[section].record(nanos);
+
+        SectionEvent event = new SectionEvent(); // scalar-replaced by the JIT when JFR is off
+        if (event.isEnabled()) {
+            event.section = NAMES[section];
+            event.nanos = nanos;
+            event.commit();
+        }
+    }
+
+    /** Call once per presented frame (either render path). */
+    public static void frame() {
+        if (!enabled) return;
+        long now = System.nanoTime();
+        if (lastFrameNanos != 0) record(FRAME, now - lastFrameNanos);
+        lastFrameNanos = now;
+    }
+
+    // =========================
+    //         REPORTER
+    // =========================
+    private static void reportLoop() {
+        List<GarbageCollectorMXBean> gcs = ManagementFactory.getGarbageCollectorMXBeans();
+        String csvPath = System.getProperty("game.metrics.csv");
+
+        long[][] second = new long[SECTIONS][LatencyHistogram.BUCKETS];
+        long[][] window = new long[SECTIONS][LatencyHistogram.BUCKETS];
+        long lastGc = totalGcCount(gcs);
+        int seconds = 0;
+
+        while (true) {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            for (int s = 0; s < SECTIONS; s++) {
+                Arrays.fill(second[s], 0);
+                long n = live[s].drainInto(second[s]);
+                perSecond[s] = n;
+                p50[s] = LatencyHistogram.percentile(second[s], n, 50);
+                p99[s] = LatencyHistogram.percentile(second[s], n, 99);
+                for (int i = 0; i < LatencyHistogram.BUCKETS; i++) window[s][i] += second[s][i];
+            }
+
+            long gc = totalGcCount(gcs);
+            gcPerSecond = gc - lastGc;
+            gcCount = gc;
+            lastGc = gc;
+
+            if (csvPath != null && ++seconds % CSV_SECONDS == 0) {
+                writeCsv(csvPath, window, gc);
+                for (long[] w : window) Arrays.fill(w, 0);
+            }
+        }
+    }
+
+    private static long totalGcCount(List<GarbageCollectorMXBean> gcs) {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : gcs) total += Math.max(0, gc.getCollectionCount());
+        return total;
+    }
+
+    // unixMillis,section,count,mean_us,p50_us,p90_us,p99_us,max_us,gc_count
+    private static void writeCsv(String path, long[][] window, long gc) {
+        boolean header = !new File(path).exists();
+        try (PrintWriter out = new PrintWriter(new FileWriter(path, true))) {
+            if (header) out.println("unix_ms,section,count,mean_us,p50_us,p90_us,p99_us,max_us,gc_count");
+            long now = System.currentTimeMillis();
+            for (int s = 0; s < SECTIONS; s++) {
+                long n = LatencyHistogram.total(window[s]);
+                if (n == 0) continue;
+                out.printf("%d,%s,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%d%n", now, NAMES[s], n,
+                        LatencyHistogram.mean(window[s], n) / 1000.0,
+                        LatencyHistogram.percentile(window[s], n, 50) / 1000.0,
+                        LatencyHistogram.percentile(window[s], n, 90) / 1000.0,
+                        LatencyHistogram.percentile(window[s], n, 99) / 1000.0,
+                        LatencyHistogram.max(window[s]) / 1000.0, gc);
+            }
+        } catch (IOException e) {
+            System.out.println("Error writing metrics CSV: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package game;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+
+/**
+ * MetricsOverlay - the F3 debug panel: FPS, GC count and p50/p99 of every Metrics section
+ * over the last second. Drawn with GlyphAtlas, so showing it allocates nothing.
+ */
+public final class MetricsOverlay {
+
+    private static final GlyphAtlas TEXT = GlyphAtlas.get("Monospaced", Font.PLAIN, 12, new Color(140, 255, 140), false);
+    private static final Color BACK = new Color(0, 0, 0, 170);
+
+    private static final int LINE = 14;
+    private static final int COL_P50 = 110;
+    private static final int COL_P99 = 190;
+    private static final int WIDTH = 270;
+
+    private MetricsOverlay() {}
+
+    public static void draw(Graphics g, int x, int y) {
+        int lines = 2 + Metrics.SECTIONS;
+        g.setColor(BACK);
+        g.fillRect(x, y, WIDTH, lines * LINE + 8);
+
+        int tx = x + 6;
+        int ty = y + 4 + TEXT.getAscent();
+
+        if (!Metrics.isEnabled()) {
+            TEXT.drawString(g, "metrics off (Metrics.start)", tx, ty);
+            return;
+        }
+
+        // frames presented in the last second = FPS
+        int cx = TEXT.drawString(g, "FPS ", tx, ty);
+        cx = TEXT.drawInt(g, (int) Metrics.perSecond[Metrics.FRAME], cx, ty);
+        cx = TEXT.drawString(g, "   GC ", cx, ty);
+        cx = TEXT.drawInt(g, (int) Metrics.gcCount, cx, ty);
+        cx = TEXT.drawString(g, " (+", cx, ty);
+        cx = TEXT.drawInt(g, (int) Metrics.gcPerSecond, cx, ty);
+        TEXT.drawString(g, "/s)", cx, ty);
+        ty += LINE;
+
+        TEXT.drawString(g, "section", tx, ty);
+        TEXT.drawString(g, "p50 ms", tx + COL_P50, ty);
+        TEXT.drawString(g, "p99 ms", tx + COL_P99, ty);
+        ty += LINE;
+
+        for (int s = 0; s < Metrics.SECTIONS; s++) {
+            TEXT.drawString(g, Metrics.NAMES[s], tx, ty);
+            drawMillis(g, Metrics.p50[s], tx + COL_P50, ty);
+            drawMillis(g, Metrics.p99[s], tx + COL_P99, ty);
+            ty += LINE;
+        }
+    }
+
+    // nanos as "12.34" without building a String
+    private static void drawMillis(Graphics g, long nanos, int x, int y) {
+        long hundredths = nanos / 10_000;
+        x = TEXT.drawInt(g, (int) (hundredths / 100), x, y);
+        x = TEXT.drawString(g, hundredths % 100 < 10 ? ".0" : ".", x, y);
+        TEXT.drawInt(g, (int) (hundredths % 100), x, y);
+    }
+}
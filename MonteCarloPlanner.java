@@ -0,0 +1,183 @@
+package game;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import game.entities.Player;
+
+/**
+ * MonteCarloPlanner - picks the bot's next action by playing the duel forward many times.
+ *
+ * - request() copies the fighters into a RolloutModel and hands the search to the worker pool;
+ *   the game thread never waits for it
+ * - every worker tries each action in turn (held for HOLD_TICKS, then random play for both
+ *   sides up to HORIZON_TICKS) until BUDGET_NANOS after the request, then adds its totals in
+ * - the last worker to finish publishes the action with the best average; poll() hands it out once
+ *
+ * The pool is shared by every planner: WORKERS threads, one per core left after the game and
+ * render threads, at least 1. Fewer cores means fewer rollouts per decision, not a later one.
+ * The search runs on wall-clock time, so a HARD bot doesn't play the same match twice from a seed.
+ */
+public class MonteCarloPlanner {
+
+    public static final long BUDGET_NANOS = 2_000_000L; // per decision
+    static final int WORKERS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 2));
+
+    private static final int HOLD_TICKS = 6;     // the candidate action is held this long
+    private static final int HORIZON_TICKS = 45; // then both sides play randomly up to here
+    private static final int POLICY_TICKS = 6;   // random play changes action this often
+
+    private static ExecutorService pool;
+
+    private static synchronized ExecutorService pool() {
+        if (pool == null) {
+            AtomicInteger n = new AtomicInteger();
+            pool = Executors.newFixedThreadPool(WORKERS, r -> {
+                Thread t = new Thread(r, "ai-search-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return pool;
+    }
+
+    private final RolloutModel root = new RolloutModel();
+    private final Worker[] workers = new Worker[WORKERS];
+
+    // merged by the workers of one search
+    private final long[] totals = new long[RolloutModel.ACTIONS];
+    private final int[] counts = new int[RolloutModel.ACTIONS];
+    private final AtomicInteger running = new AtomicInteger(); // workers still searching
+    private volatile boolean busy = false;                      // until the result is published
+    private volatile long deadline;
+
+    private volatile int result = -1;
+    private volatile int lastRollouts = 0;
+
+    public MonteCarloPlanner(long seed) {
+        for (int i = 0; i < WORKERS; i++) workers[i] = new Worker(seed + i * 0x9E3779B97F4A7C15L);
+    }
+
+    /** Starts a search from the given view of the match. Returns false if one is still running. */
+    public boolean request(Player bot, Player opponent, int opponentX, boolean opponentAttacking, int arenaWidth) {
+        if (busy) return false;
+
+        root.read(bot, opponent, opponentX, opponentAttacking, arenaWidth);
+        Arrays.fill(totals, 0);
+        Arrays.fill(counts, 0);
+        deadline = System.nanoTime() + BUDGET_NANOS;
+
+        busy = true;
+        running.set(WORKERS);
+        ExecutorService p = pool();
+        for (Worker w : workers) p.execute(w);
+        return true;
+    }
+
+    /** The action (RolloutModel.A_*) of the last finished search, once; -1 if none is new. */
+    public int poll() {
+        int r = result;
+        if (r >= 0) result = -1;
+        return r;
+    }
+
+    /** Rollouts played for the last finished search (all workers). */
+    public int getLastRollouts() {
+        return lastRollouts;
+    }
+
+    private void finish(Worker w) {
+        synchronized (totals) {
+            for (int a = 0; a < RolloutModel.ACTIONS; a++) {
+                totals[a] += w.totals[a];
+                counts[a] += w.counts[a];
+            }
+        }
+        if (running.decrementAndGet() != 0) return;
+
+        // last worker out picks the best average
+        int best = RolloutModel.A_IDLE;
+        double bestMean = Double.NEGATIVE_INFINITY;
+        int rollouts = 0;
+        synchronized (totals) {
+            for (int a = 0; a < RolloutModel.ACTIONS; a++) {
+                rollouts += counts[a];
+                if (counts[a] == 0) continue;
+                double mean = totals[a] / (double) counts[a];
+                if (mean > bestMean) {
+                    bestMean = mean;
+                    best = a;
+                }
+            }
+        }
+        lastRollouts = rollouts;
+        result = best;
+        busy = false;
+    }
+
+    // =========================
+    //          WORKER
+    // =========================
+    private final class Worker implements Runnable {
+        private final RolloutModel sim = new RolloutModel();
+        private final long[] totals = new long[RolloutModel.ACTIONS];
+        private final int[] counts = new int[RolloutModel.ACTIONS];
+        private long seed;
+
+        Worker(long seed) {
+            this.seed = seed != 0 ? seed : 1;
+        }
+
+        @Override
+        public void run() {
+            Arrays.fill(totals, 0);
+            Arrays.fill(counts, 0);
+
+            // start each worker on a different action so short budgets still cover them all
+            int action = (int) (Math.abs(seed) % RolloutModel.ACTIONS);
+            do {
+                totals[action] += rollout(action);
+                counts[action]++;
+                action = action + 1 == RolloutModel.ACTIONS ? 0 : action + 1;
+            } while (System.nanoTime() < deadline);
+
+            finish(this);
+        }
+
+        private int rollout(int first) {
+            sim.copyFrom(root);
+            int botAction = first;
+            int opponentAction = randomAction();
+
+            for (int t = 0; t < HORIZON_TICKS && !sim.over(); t++) {
+                if (t >= HOLD_TICKS && t % POLICY_TICKS == 0) botAction = randomAction();
+                if (t % POLICY_TICKS == 0) opponentAction = randomAction();
+                sim.step(botAction, opponentAction);
+            }
+            return sim.score(root);
+        }
+
+        // random play, leaning on walking in and attacking like a real opponent
+        private int randomAction() {
+            int r = next() % 20;
+            if (r < 6) return RolloutModel.A_TOWARD;
+            if (r < 8) return RolloutModel.A_AWAY;
+            if (r < 10) return RolloutModel.A_JUMP;
+            if (r < 11) return RolloutModel.A_CROUCH;
+            if (r < 12) return RolloutModel.A_DODGE;
+            if (r < 16) return RolloutModel.A_BASIC;
+            if (r < 18) return RolloutModel.A_SKILL1;
+            return RolloutModel.A_SKILL2;
+        }
+
+        // xorshift: no shared Random between workers
+        private int next() {
+            seed ^= seed << 13;
+            seed ^= seed >>> 7;
+            seed ^= seed << 17;
+            return (int) (seed >>> 33);
+        }
+    }
+}
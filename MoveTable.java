@@ -0,0 +1,282 @@
+package game;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * MoveTable:
+ * - weapons are small int ids (file order), every move is a slot in flat primitive arrays:
+ *   slot = weaponId * stride + attackType
+ * - loaded once from /game/data/moves.csv (built-in defaults if the file is missing or broken)
+ * - combat code resolves the weapon id once per match, each hit is then plain array indexing
+ *
+ * Dev hot reload: run with -Dgame.moves=path/to/moves.csv and the file is re-read whenever it changes.
+ * A reload that fails (half-saved file, typo) keeps the current table; only the first load falls
+ * back to the built-in moves. Ids only stay stable across a reload if new weapons are appended at the end.
+ */
+public final class MoveTable {
+
+    private static final String RESOURCE = "/game/data/moves.csv";
+    private static final String FILE_PROPERTY = "game.moves";
+
+    public static final int UNSET = -1;            // empty column: Player keeps its own value
+    public static final int DEFAULT_KNOCKBACK = 8; // unknown weapon / move
+    public static final int HEIGHT_LOW = 0;
+    public static final int HEIGHT_HIGH = 1;
+
+    /** One immutable version of the table; reloads swap the whole thing. */
+    private static final class Table {
+        final String[] names;
+        final Map<String, Integer> ids;
+        final int stride;            // highest attack type + 1 (slot 0 unused)
+        final int[] damage;
+        final int[] knockback;
+        final int[] height;
+        final int[] cooldownMs;
+        final int[] frameCount;
+
+        Table(String[] names, int stride) {
+            this.names = names;
+            this.stride = stride;
+            this.ids = new HashMap<>();
+            for (int i = 0; i < names.length; i++) ids.put(names[i], i);
+
+            int slots = names.length * stride;
+            damage = filled(slots);
+            knockback = filled(slots);
+            height = filled(slots);
+            cooldownMs = filled(slots);
+            frameCount = filled(slots);
+        }
+
+        private static int[] filled(int n) {
+            int[] a = new int[n];
+            Arrays.fill(a, UNSET);
+            return a;
+        }
+    }
+
+    private static volatile Table table = load();
+
+    static {
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file != null) watch(new File(file));
+    }
+
+    private MoveTable() {}
+
+    // =========================
+    //         LOOKUPS
+    // =========================
+
+    /** Weapon id for a name, or -1 if the table doesn't know it. Resolve once, not per hit. */
+    public static int weaponId(String name) {
+        Integer id = table.ids.get(name);
+        return id != null ? id : -1;
+    }
+
+    public static String weaponName(int weaponId) {
+        return table.names[weaponId];
+    }
+
+    public static int weaponCount() {
+        return table.names.length;
+    }
+
+    /** Copy of the weapon names in id order. */
+    public static String[] weaponNames() {
+        return table.names.clone();
+    }
+
+    /** Random weapon other than the given one (AI opponent pick). */
+    public static String randomWeaponExcept(String name, Random rng) {
+        Table t = table;
+        Integer except = t.ids.get(name);
+        if (except == null || t.names.length < 2) return t.names[rng.nextInt(t.names.length)];
+
+        int pick = rng.nextInt(t.names.length - 1);
+        if (pick >= except) pick++; // skip over the excluded id
+        return t.names[pick];
+    }
+
+    public static int knockback(int weaponId, int attackType) {
+        Table t = table;
+        int v = get(t, weaponId, attackType, t.knockback);
+        return v != UNSET ? v : DEFAULT_KNOCKBACK;
+    }
+
+    /** Damage for a move, or UNSET if the table leaves it to Player. */
+    public static int damage(int weaponId, int attackType) {
+        Table t = table;
+        return get(t, weaponId, attackType, t.damage);
+    }
+
+    /** HEIGHT_LOW, HEIGHT_HIGH or UNSET. */
+    public static int height(int weaponId, int attackType) {
+        Table t = table;
+        return get(t, weaponId, attackType, t.height);
+    }
+
+    public static int cooldownMs(int weaponId, int attackType) {
+        Table t = table;
+        return get(t, weaponId, attackType, t.cooldownMs);
+    }
+
+    /** Animation frames for a move, or UNSET (use whatever SpriteRepository found). */
+    public static int frameCount(int weaponId, int attackType) {
+        Table t = table;
+        return get(t, weaponId, attackType, t.frameCount);
+    }
+
+    private static int get(Table t, int weaponId, int attackType, int[] column) {
+        if (weaponId < 0 || weaponId >= t.names.length || attackType <= 0 || attackType >= t.stride) return UNSET;
+        return column[weaponId * t.stride + attackType];
+    }
+
+    // =========================
+    //         LOADING
+    // =========================
+    // first load: anything missing or broken means the built-in moves
+    private static Table load() {
+        try {
+            Table t = read();
+            if (t == null) {
+                System.out.println("No move table found (" + RESOURCE + "), using built-in moves");
+                return defaults();
+            }
+            System.out.println("Loaded move table: " + t.names.length + " weapons");
+            return t;
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error reading move table, using built-in moves: " + e.getMessage());
+            return defaults();
+        }
+    }
+
+    // hot reload: a file that doesn't parse leaves the current table in place
+    private static void reload(File file) {
+        try {
+            Table t = read();
+            if (t == null) throw new IOException("cannot open " + file);
+            table = t;
+            System.out.println("Reloaded move table: " + t.names.length + " weapons");
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error reloading move table, keeping the current one: " + e.getMessage());
+        }
+    }
+
+    // the -Dgame.moves file if set, else the bundled resource; null if neither is there
+    private static Table read() throws IOException {
+        String file = System.getProperty(FILE_PROPERTY);
+        try (InputStream in = file != null ? new FileInputStream(file) : MoveTable.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) return null;
+            return parse(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        }
+    }
+
+    // weapon,attackType,damage,knockback,height,cooldownMs,frames   (empty column = UNSET)
+    private static Table parse(BufferedReader reader) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int maxAttack = 0;
+
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith("weapon,")) continue;
+
+            String[] cols = line.split(",", -1);
+            if (cols.length != 7) throw new IllegalArgumentException("line " + lineNo + ": expected 7 columns");
+
+            String name = cols[0].trim();
+            if (!names.contains(name)) names.add(name);
+            maxAttack = Math.max(maxAttack, parseInt(cols[1], lineNo));
+            rows.add(cols);
+        }
+        if (names.isEmpty()) throw new IllegalArgumentException("no moves");
+
+        Table t = new Table(names.toArray(new String[0]), maxAttack + 1);
+        for (String[] cols : rows) {
+            int attackType = parseInt(cols[1], 0);
+            if (attackType <= 0) throw new IllegalArgumentException("attack types start at 1: " + cols[0]);
+
+            int slot = t.ids.get(cols[0].trim()) * t.stride + attackType;
+            t.damage[slot] = parseOptional(cols[2]);
+            t.knockback[slot] = parseOptional(cols[3]);
+            t.height[slot] = parseHeight(cols[4]);
+            t.cooldownMs[slot] = parseOptional(cols[5]);
+            t.frameCount[slot] = parseOptional(cols[6]);
+        }
+        return t;
+    }
+
+    private static int parseInt(String s, int lineNo) {
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("line " + lineNo + ": bad number '" + s + "'");
+        }
+    }
+
+    private static int parseOptional(String s) {
+        return s.trim().isEmpty() ? UNSET : parseInt(s, 0);
+    }
+
+    private static int parseHeight(String s) {
+        switch (s.trim().toUpperCase()) {
+            case "":     return UNSET;
+            case "LOW":  return HEIGHT_LOW;
+            case "HIGH": return HEIGHT_HIGH;
+            default: throw new IllegalArgumentException("height must be LOW or HIGH: " + s);
+        }
+    }
+
+    // the values the game shipped with before moves.csv existed
+    private static Table defaults() {
+        Table t = new Table(new String[]{"Katana", "Axe", "Scythe"}, 4);
+        int[][] knockback = {
+                {8, 12, 15},   // Katana
+                {10, 16, 20},  // Axe
+                {6, 18, 12},   // Scythe
+        };
+        for (int w = 0; w < knockback.length; w++) {
+            for (int a = 1; a <= 3; a++) t.knockback[w * t.stride + a] = knockback[w][a - 1];
+        }
+        return t;
+    }
+
+    // =========================
+    //        HOT RELOAD
+    // =========================
+    private static void watch(File file) {
+        Thread watcher = new Thread(() -> {
+            long lastModified = file.lastModified();
+            while (true) {
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long modified = file.lastModified();
+                if (modified != lastModified) {
+                    lastModified = modified;
+                    reload(file);
+                }
+            }
+        }, "move-table-watch");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+}
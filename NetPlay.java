@@ -0,0 +1,155 @@
+package game;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+import javax.swing.JFrame;
+
+import game.entities.Player;
+
+/**
+ * NetPlay - starts an online match (rollback over UDP).
+ *
+ * Two windows on one box:
+ *   java game.NetPlay 1 7001 127.0.0.1:7002 Katana Axe [loss%] [latencyMs] [jitterMs]
+ *   java game.NetPlay 2 7002 127.0.0.1:7001 Katana Axe [loss%] [latencyMs] [jitterMs]
+ * Each window plays its side with the player 1 keys. Both must be given the same weapons.
+ *
+ * Headless check, two AI-driven sessions over loopback UDP in one process:
+ *   java game.NetPlay --loopback [loss%=10] [latencyMs=60] [jitterMs=15] [seconds=30]
+ * Plays in real time, lets the last inputs settle and checks that both sides ended in the same state
+ * and that no exchanged checksum differed.
+ */
+public class NetPlay {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--loopback")) {
+            loopback(intArg(args, 1, 10), intArg(args, 2, 60), intArg(args, 3, 15), intArg(args, 4, 30));
+            return;
+        }
+        if (args.length < 5) {
+            System.out.println("usage: java game.NetPlay <1|2> <localPort> <peerHost:peerPort> <p1Weapon> <p2Weapon> [loss%] [latencyMs] [jitterMs]");
+            System.out.println("       java game.NetPlay --loopback [loss%] [latencyMs] [jitterMs] [seconds]");
+            return;
+        }
+
+        int player = Integer.parseInt(args[0]);
+        int localPort = Integer.parseInt(args[1]);
+        String[] hostPort = args[2].split(":");
+        InetSocketAddress peer = new InetSocketAddress(hostPort[0], Integer.parseInt(hostPort[1]));
+
+        UdpTransport transport = new UdpTransport(localPort, peer,
+                intArg(args, 5, 0), intArg(args, 6, 0), intArg(args, 7, 0));
+        NetSession session = new NetSession(player, transport);
+
+        Metrics.start();
+        AssetRegistry.preloadAll();
+        SpriteRepository.awaitLoaded(); // both peers hit-test against the sprite masks from the first tick
+
+        JFrame window = new JFrame("Stickman Brawl - online P" + player);
+        window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        window.setResizable(false);
+        window.getContentPane().setBackground(Color.BLACK);
+
+        SceneManager.show(window, new GamePanel(args[3], args[4], session));
+        window.pack();
+        window.setLocationRelativeTo(null);
+        window.setVisible(true);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(session.getStatsLine())));
+    }
+
+    // =========================
+    //      LOOPBACK CHECK
+    // =========================
+    private static void loopback(int loss, int latency, int jitter, int seconds) throws IOException {
+        System.out.printf("Loopback: %d%% loss, %d ms +- %d ms latency, %d s%n", loss, latency, jitter, seconds);
+
+        int port1 = 47001, port2 = 47002;
+        try (UdpTransport t1 = new UdpTransport(port1, new InetSocketAddress("127.0.0.1", port2), loss, latency, jitter);
+             UdpTransport t2 = new UdpTransport(port2, new InetSocketAddress("127.0.0.1", port1), loss, latency, jitter)) {
+
+            NetSession s1 = new NetSession(1, t1);
+            NetSession s2 = new NetSession(2, t2);
+            s1.attach(new MatchSimulation("Katana", "Axe", 800, 600));
+            s2.attach(new MatchSimulation("Katana", "Axe", 800, 600));
+
+            Bot bot1 = new Bot(s1, 1);
+            Bot bot2 = new Bot(s2, 2);
+
+            long tickNanos = 1_000_000_000L / MatchSimulation.TICK_RATE;
+            long next = System.nanoTime();
+            int ticks = seconds * MatchSimulation.TICK_RATE;
+
+            while (s1.getTick() < ticks || s2.getTick() < ticks) {
+                if (s1.getTick() < ticks) s1.advance(bot1.input());
+                else s1.sync(); // keep resending, the other side may still need our inputs
+                if (s2.getTick() < ticks) s2.advance(bot2.input());
+                else s2.sync();
+
+                next += tickNanos;
+                LockSupport.parkNanos(next - System.nanoTime());
+            }
+
+            // let the last inputs and checksums arrive, without running past the last tick
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while ((s1.getRemoteConfirmed() < ticks || s2.getRemoteConfirmed() < ticks) && System.nanoTime() < deadline) {
+                s1.sync();
+                s2.sync();
+                LockSupport.parkNanos(tickNanos);
+            }
+
+            System.out.println("P1 side: " + s1.getStatsLine());
+            System.out.println("P2 side: " + s2.getStatsLine());
+            System.out.println("P1 side state: " + describe(s1.getSimulation()));
+            System.out.println("P2 side state: " + describe(s2.getSimulation()));
+            boolean same = describe(s1.getSimulation()).equals(describe(s2.getSimulation()));
+            boolean sumsAgree = s1.getDesyncs() == 0 && s2.getDesyncs() == 0;
+            System.out.println(same && sumsAgree ? "OK: both sides agree"
+                    : same ? "DESYNC: checksums differed during the match" : "DESYNC: sides differ");
+        }
+    }
+
+    private static String describe(MatchSimulation s) {
+        Player p1 = s.getPlayer1();
+        Player p2 = s.getPlayer2();
+        return String.format("tick %d, P1 (%d,%d) %d HP, P2 (%d,%d) %d HP%s", s.getTick(),
+                p1.getX(), p1.getY(), p1.getHealth(), p2.getX(), p2.getY(), p2.getHealth(),
+                s.isGameOver() ? ", " + s.getWinnerText() : "");
+    }
+
+    // AI "keyboard" for one side of the loopback check (rebuilt if the match recreates its players)
+    private static final class Bot {
+        private final NetSession session;
+        private final int side;
+        private final Random rng;
+        private AIController ai;
+        private Player controlled;
+
+        Bot(NetSession session, int side) {
+            this.session = session;
+            this.side = side;
+            this.rng = new Random(side);
+        }
+
+        int input() {
+            MatchSimulation sim = session.getSimulation();
+            Player me = side == 1 ? sim.getPlayer1() : sim.getPlayer2();
+            Player other = side == 1 ? sim.getPlayer2() : sim.getPlayer1();
+            if (me != controlled) {
+                controlled = me;
+                ai = new AIController(me, other, rng);
+            }
+            if (!sim.isCountdownFinished()) return InputSnapshot.NONE;
+
+            ai.maybeThink();
+            return ai.nextInput();
+        }
+    }
+
+    private static int intArg(String[] args, int index, int fallback) {
+        return args.length > index ? Integer.parseInt(args[index]) : fallback;
+    }
+}
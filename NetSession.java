@@ -0,0 +1,210 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * NetSession - rollback netcode for one side of an online P1 vs P2 match.
+ *
+ * - the local input is applied immediately, the remote one is predicted (= its last known input)
+ * - before each tick the match state is saved into a ring of MAX_ROLLBACK + 1 snapshots
+ * - remote inputs arrive through UdpTransport; when one differs from what was predicted for that
+ *   tick, the snapshot from before it is restored and the ticks since are re-simulated with the
+ *   real input (at most MAX_ROLLBACK of them, sounds and particles off)
+ * - the local side never runs more than MAX_ROLLBACK ticks ahead of the last confirmed remote input
+ *   (it stalls instead, which also keeps both clocks together)
+ *
+ * Every packet also carries MatchSimulation.checksum() after the newest tick this side has settled
+ * (both inputs known, nothing left to roll back). The peer compares it with its own for that tick,
+ * so a drift shows up as a desync count instead of two matches quietly disagreeing. Player (not in
+ * this tree) still times cooldowns on the wall clock, which a burst of re-simulated ticks doesn't
+ * follow; that is the drift to expect.
+ */
+public class NetSession {
+
+    public static final int MAX_ROLLBACK = 8; // ticks the local side may run ahead of confirmed input
+
+    private static final int SUMS = 256;      // settled checksums kept for the peer's to compare with
+
+    private final int localPlayer;       // 1 or 2
+    private final UdpTransport transport;
+    private MatchSimulation sim;
+
+    // state before tick t is in snapshots[t % snapshots.length]
+    private final MatchSimulation.Snapshot[] snapshots = new MatchSimulation.Snapshot[MAX_ROLLBACK + 1];
+
+    // held buttons per tick (InputSnapshot button bits)
+    private byte[] localHeld = new byte[4096];
+    private byte[] remoteHeld = new byte[4096];  // confirmed remote input
+    private byte[] remoteUsed = new byte[4096];  // what the simulation used (confirmed or predicted)
+
+    private int tick = 0;            // ticks simulated
+    private int remoteConfirmed = 0; // remote input is known for ticks [0, remoteConfirmed)
+    private int firstMispredicted = Integer.MAX_VALUE;
+
+    // checksum after tick t in sums[t % SUMS]; the peer's newest one waits until we settled that tick
+    private final int[] sums = new int[SUMS];
+    private int remoteSumTick = -1;
+    private int remoteSum;
+    private int lastComparedTick = -1;
+
+    // stats
+    private int rollbacks, resimulatedTicks, stalls, comparedSums, desyncs;
+    private int firstDesyncTick = -1;
+
+    public NetSession(int localPlayer, UdpTransport transport) {
+        this.localPlayer = localPlayer;
+        this.transport = transport;
+        for (int i = 0; i < snapshots.length; i++) snapshots[i] = new MatchSimulation.Snapshot();
+    }
+
+    /** The match this session drives (GamePanel passes it in once the panel has a size). */
+    public void attach(MatchSimulation sim) {
+        this.sim = sim;
+    }
+
+    /**
+     * One tick of the game loop with the local player's snapshot.
+     * Returns false if the tick was skipped because the peer is too far behind.
+     */
+    public boolean advance(int localSnapshot) {
+        receive();
+
+        boolean stepped = tick - remoteConfirmed < MAX_ROLLBACK;
+        if (stepped) {
+            ensureCapacity(tick + 1);
+            localHeld[tick] = (byte) InputSnapshot.held(localSnapshot);
+            sim.save(snapshots[tick % snapshots.length]);
+            simulate(tick);
+            tick++;
+        } else {
+            stalls++;
+        }
+
+        send();
+        return stepped;
+    }
+
+    /** Exchanges packets and applies late remote inputs without running a new tick (the match has ended). */
+    public void sync() {
+        receive();
+        send();
+    }
+
+    private void receive() {
+        transport.receive(this);
+        if (firstMispredicted < tick) rewind();
+        firstMispredicted = Integer.MAX_VALUE;
+        compareRemoteSum();
+    }
+
+    // also resends what the peer hasn't acked
+    private void send() {
+        int sumTick = Math.min(tick, remoteConfirmed) - 1;
+        transport.send(localHeld, tick, remoteConfirmed, sumTick, sumTick >= 0 ? sums[sumTick % SUMS] : 0);
+    }
+
+    /** Called by the transport for every remote tick in a packet (duplicates are expected). */
+    void onRemoteInput(int remoteTick, int held) {
+        if (remoteTick != remoteConfirmed) return; // old duplicate, or a gap the next packet fills
+
+        ensureCapacity(remoteTick + 1);
+        remoteHeld[remoteTick] = (byte) held;
+        remoteConfirmed++;
+
+        if (remoteTick < tick && remoteUsed[remoteTick] != (byte) held) {
+            firstMispredicted = Math.min(firstMispredicted, remoteTick);
+        }
+    }
+
+    /** Called by the transport with the peer's checksum after its newest settled tick (-1: none yet). */
+    void onRemoteChecksum(int remoteTick, int sum) {
+        if (remoteTick <= remoteSumTick) return; // late or duplicate packet
+        remoteSumTick = remoteTick;
+        remoteSum = sum;
+    }
+
+    // Back to the state before the first mispredicted tick, then forward again with what is known now
+    private void rewind() {
+        int from = firstMispredicted;
+        if (tick - from > MAX_ROLLBACK) {
+            // can't happen while advance() stalls at MAX_ROLLBACK; the ring no longer has that tick
+            System.out.println("Net rollback too deep: " + (tick - from) + " ticks");
+            return;
+        }
+
+        sim.restore(snapshots[from % snapshots.length]);
+        sim.setResimulating(true);
+        try {
+            for (int t = from; t < tick; t++) {
+                if (t > from) sim.save(snapshots[t % snapshots.length]);
+                simulate(t);
+            }
+        } finally {
+            sim.setResimulating(false);
+        }
+
+        rollbacks++;
+        resimulatedTicks += tick - from;
+    }
+
+    // Steps tick t with the local input and the confirmed (or predicted) remote one
+    private void simulate(int t) {
+        int remote;
+        if (t < remoteConfirmed) remote = remoteHeld[t];
+        else remote = remoteConfirmed > 0 ? remoteHeld[remoteConfirmed - 1] : InputSnapshot.NONE; // predict: keeps holding
+        remoteUsed[t] = (byte) remote;
+
+        int local = localHeld[t] & InputSnapshot.BUTTONS;
+        int localPrev = t > 0 ? localHeld[t - 1] & InputSnapshot.BUTTONS : InputSnapshot.NONE;
+        int remotePrev = t > 0 ? remoteUsed[t - 1] & InputSnapshot.BUTTONS : InputSnapshot.NONE;
+
+        int localInput = InputSnapshot.of(local, localPrev);
+        int remoteInput = InputSnapshot.of(remote & InputSnapshot.BUTTONS, remotePrev);
+
+        if (localPlayer == 1) sim.step(localInput, remoteInput);
+        else sim.step(remoteInput, localInput);
+
+        sums[t % SUMS] = sim.checksum();
+    }
+
+    // The peer's checksum for a tick both sides have settled against ours for the same tick
+    private void compareRemoteSum() {
+        int t = remoteSumTick;
+        if (t <= lastComparedTick || t >= Math.min(tick, remoteConfirmed)) return; // not settled here yet
+        lastComparedTick = t;
+        if (t < tick - SUMS) return; // ours is gone already
+
+        comparedSums++;
+        if (sums[t % SUMS] != remoteSum) {
+            desyncs++;
+            if (firstDesyncTick < 0) {
+                firstDesyncTick = t;
+                System.out.println("Net desync at tick " + t + " (player " + localPlayer + " side)");
+            }
+        }
+    }
+
+    private void ensureCapacity(int n) {
+        if (n <= localHeld.length) return;
+        int size = Math.max(n, localHeld.length * 2);
+        localHeld = Arrays.copyOf(localHeld, size);
+        remoteHeld = Arrays.copyOf(remoteHeld, size);
+        remoteUsed = Arrays.copyOf(remoteUsed, size);
+    }
+
+    // =========================
+    //         GETTERS
+    // =========================
+    public int getLocalPlayer() { return localPlayer; }
+    public int getTick() { return tick; }
+    public int getRemoteConfirmed() { return remoteConfirmed; }
+    public int getRollbacks() { return rollbacks; }
+    public int getStalls() { return stalls; }
+    public int getDesyncs() { return desyncs; }
+    public MatchSimulation getSimulation() { return sim; }
+
+    public String getStatsLine() {
+        return String.format("tick %d, remote confirmed %d, rollbacks %d (%d ticks re-simulated), stalls %d, checksums %d compared / %d differ, %s",
+                tick, remoteConfirmed, rollbacks, resimulatedTicks, stalls, comparedSums, desyncs, transport.getStatsLine());
+    }
+}
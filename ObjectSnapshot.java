@@ -0,0 +1,204 @@
+package game;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ObjectSnapshot - copies an object's fields out and back in, for state this tree can't copy any
+ * other way (Player lives outside it and has no copy method). MatchSimulation.Snapshot uses it for
+ * rollback (NetSession) and replay keyframes (ReplayPlayer).
+ *
+ * Per instance field, declared in the game's own packages (game, game.entities):
+ * - primitives by value; final ones are constants and left alone
+ * - arrays by contents, one level deep (an Object[] gets its elements back, not their state)
+ * - Rectangle / Point by value (hitboxes)
+ * - objects of the game's own classes field by field, recursively: the AnimationController inside a
+ *   Player comes back with it. SHARED classes (clock, input, the match) stay plain references
+ * - Collections by contents (elements shared)
+ * - anything else (String, Color, enums, images) as a reference
+ *
+ * restore() writes the fields back into the same object, so everything holding it (AI, HitResolver,
+ * the renderer) sees the old state. A snapshot is reused: capture() only allocates when the shape
+ * changes (new array length, new class).
+ */
+final class ObjectSnapshot {
+
+    private static final int MAX_DEPTH = 4;
+
+    // game classes that are shared with the rest of the match, never rolled back through a fighter
+    private static final List<Class<?>> SHARED = List.of(
+            GameClock.class, KeyHandler.class, MatchSimulation.class, HitResolver.class);
+
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && isGameClass(c); c = c.getSuperclass()) {
+                for (Field f : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(f.getModifiers()) || f.isSynthetic()) continue;
+                    f.setAccessible(true);
+                    fields.add(f);
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    private Class<?> type;
+    private Field[] fields;
+    private long[] prims;              // primitive fields (raw bits)
+    private Object[] refs;             // reference fields as they were
+    private Object[] copies;           // contents of arrays / rectangles / points / collections
+    private ObjectSnapshot[] nested;   // game objects captured field by field
+
+    /** Copies o's state into this snapshot. */
+    void capture(Object o) {
+        try {
+            capture(o, 0);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("cannot snapshot " + o.getClass().getName(), e);
+        }
+    }
+
+    /** Writes the captured state back into o (the object capture() was given). */
+    void restore(Object o) {
+        try {
+            restore(o, 0);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("cannot restore " + o.getClass().getName(), e);
+        }
+    }
+
+    private void capture(Object o, int depth) throws IllegalAccessException {
+        Class<?> c = o.getClass();
+        if (c != type) {
+            type = c;
+            fields = FIELDS.get(c);
+            prims = new long[fields.length];
+            refs = new Object[fields.length];
+            copies = new Object[fields.length];
+            nested = new ObjectSnapshot[fields.length];
+        }
+
+        for (int i = 0; i < fields.length; i++) {
+            Field f = fields[i];
+            if (f.getType().isPrimitive()) {
+                prims[i] = readPrimitive(f, o);
+                continue;
+            }
+
+            Object v = f.get(o);
+            refs[i] = v;
+            if (v == null) continue;
+
+            if (v.getClass().isArray()) {
+                int n = Array.getLength(v);
+                Object copy = copies[i];
+                if (copy == null || copy.getClass() != v.getClass() || Array.getLength(copy) != n) {
+                    copy = Array.newInstance(v.getClass().getComponentType(), n);
+                    copies[i] = copy;
+                }
+                System.arraycopy(v, 0, copy, 0, n);
+            } else if (v instanceof Rectangle) {
+                Rectangle copy = copies[i] instanceof Rectangle ? (Rectangle) copies[i] : new Rectangle();
+                copy.setBounds((Rectangle) v);
+                copies[i] = copy;
+            } else if (v instanceof Point) {
+                Point copy = copies[i] instanceof Point ? (Point) copies[i] : new Point();
+                copy.setLocation((Point) v);
+                copies[i] = copy;
+            } else if (v instanceof Collection) {
+                copies[i] = ((Collection<?>) v).toArray();
+            } else if (depth < MAX_DEPTH && v != o && isOwned(v.getClass())) {
+                if (nested[i] == null) nested[i] = new ObjectSnapshot();
+                nested[i].capture(v, depth + 1);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void restore(Object o, int depth) throws IllegalAccessException {
+        if (o.getClass() != type) throw new IllegalStateException("snapshot of " + type + " restored into " + o.getClass());
+
+        for (int i = 0; i < fields.length; i++) {
+            Field f = fields[i];
+            boolean isFinal = Modifier.isFinal(f.getModifiers());
+            if (f.getType().isPrimitive()) {
+                if (!isFinal) writePrimitive(f, o, prims[i]);
+                continue;
+            }
+
+            Object v = refs[i];
+            if (!isFinal) f.set(o, v);
+            else v = f.get(o); // can't swap a final reference, bring its contents back instead
+            if (v == null) continue;
+
+            if (v.getClass().isArray()) {
+                Object copy = copies[i];
+                if (copy != null && copy.getClass() == v.getClass() && Array.getLength(copy) == Array.getLength(v)) {
+                    System.arraycopy(copy, 0, v, 0, Array.getLength(v));
+                }
+            } else if (v instanceof Rectangle) {
+                if (copies[i] instanceof Rectangle) ((Rectangle) v).setBounds((Rectangle) copies[i]);
+            } else if (v instanceof Point) {
+                if (copies[i] instanceof Point) ((Point) v).setLocation((Point) copies[i]);
+            } else if (v instanceof Collection) {
+                if (copies[i] instanceof Object[]) {
+                    Collection<Object> coll = (Collection<Object>) v;
+                    try {
+                        coll.clear();
+                        Collections.addAll(coll, (Object[]) copies[i]);
+                    } catch (UnsupportedOperationException e) {
+                        // immutable: nothing can have changed it
+                    }
+                }
+            } else if (nested[i] != null && v.getClass() == nested[i].type && depth < MAX_DEPTH) {
+                nested[i].restore(v, depth + 1);
+            }
+        }
+    }
+
+    private static boolean isGameClass(Class<?> c) {
+        String pkg = c.getPackageName();
+        return pkg.equals("game") || pkg.startsWith("game.");
+    }
+
+    private static boolean isOwned(Class<?> c) {
+        if (!isGameClass(c) || c.isEnum()) return false;
+        for (Class<?> shared : SHARED) {
+            if (shared.isAssignableFrom(c)) return false;
+        }
+        return true;
+    }
+
+    private static long readPrimitive(Field f, Object o) throws IllegalAccessException {
+        Class<?> t = f.getType();
+        if (t == int.class) return f.getInt(o);
+        if (t == long.class) return f.getLong(o);
+        if (t == boolean.class) return f.getBoolean(o) ? 1 : 0;
+        if (t == float.class) return Float.floatToRawIntBits(f.getFloat(o));
+        if (t == double.class) return Double.doubleToRawLongBits(f.getDouble(o));
+        if (t == short.class) return f.getShort(o);
+        if (t == byte.class) return f.getByte(o);
+        return f.getChar(o);
+    }
+
+    private static void writePrimitive(Field f, Object o, long bits) throws IllegalAccessException {
+        Class<?> t = f.getType();
+        if (t == int.class) f.setInt(o, (int) bits);
+        else if (t == long.class) f.setLong(o, bits);
+        else if (t == boolean.class) f.setBoolean(o, bits != 0);
+        else if (t == float.class) f.setFloat(o, Float.intBitsToFloat((int) bits));
+        else if (t == double.class) f.setDouble(o, Double.longBitsToDouble(bits));
+        else if (t == short.class) f.setShort(o, (short) bits);
+        else if (t == byte.class) f.setByte(o, (byte) bits);
+        else f.setChar(o, (char) bits);
+    }
+}
@@ -0,0 +1,310 @@
+package game;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ParticleSystem - hit sparks, landing dust and dodge afterimages.
+ * - struct of arrays: one primitive array per field, no object per particle
+ * - fixed capacity; live particles are always [0, count), a dead one is replaced by the last (swap-remove)
+ * - two threads: spawn / update / clear belong to the game thread, which ends each of them by
+ *   publishing a draw list (position, size, shade) through a triple buffer; draw() only ever reads
+ *   the latest published list, so the renderer never sees the arrays mid-update
+ * - draw() is one batch: every particle is blended straight into the pixels of a reusable
+ *   premultiplied ARGB layer (colour from a per type x fade level table), then the touched part of
+ *   the layer goes to the screen in a single drawImage. 10k translucent fillRects through Java2D
+ *   cost tens of ms in software; this is about a millisecond
+ * - update() integrates in parallel on the common ForkJoinPool above PARALLEL_THRESHOLD live
+ *   particles (big bursts); removal stays sequential
+ */
+public class ParticleSystem {
+
+    // ===== types =====
+    public static final int SPARK = 0;
+    public static final int DUST = 1;
+    public static final int AFTERIMAGE = 2;
+    private static final int TYPES = 3;
+
+    // per type: SPARK, DUST, AFTERIMAGE
+    private static final float[] GRAVITY = {0.35f, 0.05f, 0f};
+    private static final float[] DRAG = {0.94f, 0.88f, 1f};
+    private static final Color[] COLOR = {new Color(255, 220, 90), new Color(170, 150, 120), new Color(120, 200, 255)};
+    private static final int[] MAX_ALPHA = {255, 170, 110};
+
+    private static final int FADE_LEVELS = 8;  // alpha steps per type
+    private static final int[] SHADES = new int[TYPES * FADE_LEVELS]; // premultiplied ARGB
+    static {
+        for (int t = 0; t < TYPES; t++) {
+            for (int l = 0; l < FADE_LEVELS; l++) {
+                int a = MAX_ALPHA[t] * (l + 1) / FADE_LEVELS;
+                int r = COLOR[t].getRed() * a / 255;
+                int g = COLOR[t].getGreen() * a / 255;
+                int b = COLOR[t].getBlue() * a / 255;
+                SHADES[t * FADE_LEVELS + l] = (a << 24) | (r << 16) | (g << 8) | b;
+            }
+        }
+    }
+
+    static final int PARALLEL_THRESHOLD = 8192;
+    private static final int CHUNK = 2048; // particles per fork-join leaf
+
+    // ===== particles [0, count) =====
+    private final float[] x, y, vx, vy;
+    private final int[] age, life;
+    private final byte[] type;
+    private final short[] w, h;
+    private int count = 0;
+
+    // draw lists: the game thread fills `writing` and swaps it into `ready`, draw() swaps
+    // `ready` with `reading` when a newer one is there; nobody waits for anybody
+    private Frame writing;
+    private final AtomicReference<Frame> ready;
+    private Frame reading;
+
+    // draw layer (only touched by draw(), i.e. the render thread)
+    private BufferedImage layer;
+    private int[] pixels;
+    private int layerWidth, layerHeight;
+    private int dirtyX0, dirtyY0, dirtyX1, dirtyY1; // area written by the last draw
+
+    public ParticleSystem(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        age = new int[capacity];
+        life = new int[capacity];
+        type = new byte[capacity];
+        w = new short[capacity];
+        h = new short[capacity];
+
+        writing = new Frame(capacity);
+        ready = new AtomicReference<>(new Frame(capacity));
+        reading = new Frame(capacity);
+    }
+
+    /** One published draw list. */
+    private static final class Frame {
+        final short[] x, y, w, h;
+        final byte[] shade;
+        int count;
+        boolean fresh; // published and not taken by draw() yet
+
+        Frame(int capacity) {
+            x = new short[capacity];
+            y = new short[capacity];
+            w = new short[capacity];
+            h = new short[capacity];
+            shade = new byte[capacity];
+        }
+    }
+
+    /** Adds one particle; dropped when full (they are cosmetic). */
+    public void spawn(int kind, float px, float py, float pvx, float pvy, int ticks, int width, int height) {
+        if (count == x.length) return;
+        int i = count++;
+        x[i] = px;
+        y[i] = py;
+        vx[i] = pvx;
+        vy[i] = pvy;
+        age[i] = 0;
+        life[i] = ticks;
+        type[i] = (byte) kind;
+        w[i] = (short) width;
+        h[i] = (short) height;
+    }
+
+    /** n sparks flying from (px, py), mostly toward dir (1 right, -1 left). */
+    public void sparks(float px, float py, int dir, int n, Random rng) {
+        for (int k = 0; k < n; k++) {
+            float speed = 2f + rng.nextFloat() * 5f;
+            float angle = (rng.nextFloat() - 0.5f) * 2.2f;          // +-63 degrees around dir
+            spawn(SPARK, px, py, (float) Math.cos(angle) * speed * dir, (float) Math.sin(angle) * speed - 2f,
+                    12 + rng.nextInt(14), 3, 3);
+        }
+    }
+
+    /** n dust puffs rolling both ways along the ground at (px, groundY). */
+    public void dust(float px, float groundY, int n, Random rng) {
+        for (int k = 0; k < n; k++) {
+            float pvx = (rng.nextFloat() - 0.5f) * 5f;
+            spawn(DUST, px + pvx * 3, groundY - 3, pvx, -rng.nextFloat() * 1.2f, 18 + rng.nextInt(12), 5, 4);
+        }
+    }
+
+    /** A fading copy of a fighter's box. */
+    public void afterimage(int px, int py, int width, int height) {
+        spawn(AFTERIMAGE, px, py, 0, 0, 12, width, height);
+    }
+
+    public void clear() {
+        count = 0;
+        publish();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // =========================
+    //          UPDATE
+    // =========================
+
+    /** One simulation tick: move, age, then compact out the dead ones. */
+    public void update() {
+        if (count >= PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new Integrate(0, count));
+        } else {
+            integrate(0, count);
+        }
+
+        // swap-remove: the last live particle fills the hole, order doesn't matter
+        int i = 0;
+        while (i < count) {
+            if (age[i] < life[i]) {
+                i++;
+                continue;
+            }
+            int last = --count;
+            x[i] = x[last];
+            y[i] = y[last];
+            vx[i] = vx[last];
+            vy[i] = vy[last];
+            age[i] = age[last];
+            life[i] = life[last];
+            type[i] = type[last];
+            w[i] = w[last];
+            h[i] = h[last];
+        }
+
+        publish();
+    }
+
+    // game thread: copy what draw() needs into a free list and hand it over
+    private void publish() {
+        Frame f = writing;
+        int n = count;
+        for (int i = 0; i < n; i++) {
+            f.x[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, (int) x[i]));
+            f.y[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, (int) y[i]));
+            f.w[i] = w[i];
+            f.h[i] = h[i];
+            f.shade[i] = (byte) shadeOf(i);
+        }
+        f.count = n;
+        f.fresh = true;
+        writing = ready.getAndSet(f);
+    }
+
+    private void integrate(int from, int to) {
+        for (int i = from; i < to; i++) {
+            int t = type[i];
+            vx[i] *= DRAG[t];
+            vy[i] = vy[i] * DRAG[t] + GRAVITY[t];
+            x[i] += vx[i];
+            y[i] += vy[i];
+            age[i]++;
+        }
+    }
+
+    private final class Integrate extends RecursiveAction {
+        private final int from, to;
+
+        Integrate(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK) {
+                integrate(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Integrate(from, mid), new Integrate(mid, to));
+        }
+    }
+
+    // =========================
+    //           DRAW
+    // =========================
+
+    /**
+     * Draws the last published particles into the layer image, then the layer onto g with a single
+     * drawImage of the area touched. width / height: the panel size. Render thread only.
+     */
+    public void draw(Graphics g, int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        if (ready.get().fresh) {
+            reading.fresh = false;
+            reading = ready.getAndSet(reading);
+        }
+        Frame f = reading;
+
+        if (layer == null || width != layerWidth || height != layerHeight) createLayer(width, height);
+
+        // wipe what the previous frame wrote
+        for (int row = dirtyY0; row < dirtyY1; row++) {
+            Arrays.fill(pixels, row * width + dirtyX0, row * width + dirtyX1, 0);
+        }
+        dirtyX0 = width;
+        dirtyY0 = height;
+        dirtyX1 = 0;
+        dirtyY1 = 0;
+
+        for (int i = 0; i < f.count; i++) plot(f, i, width, height);
+
+        if (dirtyX0 >= dirtyX1 || dirtyY0 >= dirtyY1) return;
+        g.drawImage(layer, dirtyX0, dirtyY0, dirtyX1, dirtyY1, dirtyX0, dirtyY0, dirtyX1, dirtyY1, null);
+    }
+
+    // one particle: src-over blend of its shade into the premultiplied layer
+    private void plot(Frame f, int i, int width, int height) {
+        int x0 = Math.max(0, f.x[i]);
+        int y0 = Math.max(0, f.y[i]);
+        int x1 = Math.min(width, f.x[i] + f.w[i]);
+        int y1 = Math.min(height, f.y[i] + f.h[i]);
+        if (x0 >= x1 || y0 >= y1) return;
+
+        int src = SHADES[f.shade[i]];
+        int inv = 255 - (src >>> 24);
+        for (int row = y0; row < y1; row++) {
+            int k = row * width + x0;
+            for (int end = row * width + x1; k < end; k++) {
+                int d = pixels[k];
+                int rb = ((d & 0xFF00FF) * inv >>> 8) & 0xFF00FF;
+                int ag = (((d >>> 8) & 0xFF00FF) * inv) & 0xFF00FF00;
+                pixels[k] = src + (rb | ag);
+            }
+        }
+
+        if (x0 < dirtyX0) dirtyX0 = x0;
+        if (y0 < dirtyY0) dirtyY0 = y0;
+        if (x1 > dirtyX1) dirtyX1 = x1;
+        if (y1 > dirtyY1) dirtyY1 = y1;
+    }
+
+    private void createLayer(int width, int height) {
+        layer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        pixels = ((DataBufferInt) layer.getRaster().getDataBuffer()).getData();
+        layerWidth = width;
+        layerHeight = height;
+        dirtyX0 = dirtyY0 = dirtyX1 = dirtyY1 = 0;
+    }
+
+    // type * FADE_LEVELS + how far through its life the particle is
+    private int shadeOf(int i) {
+        int t = Math.max(0, Math.min(TYPES - 1, type[i]));
+        int remaining = life[i] - age[i];
+        int level = Math.max(0, Math.min(FADE_LEVELS - 1, remaining * FADE_LEVELS / Math.max(1, life[i])));
+        return t * FADE_LEVELS + level;
+    }
+}
@@ -0,0 +1,233 @@
+package game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ReplayPlayer - plays a ReplayRecorder file back on a headless MatchSimulation.
+ *
+ * The file is memory-mapped (FileChannel.map), nothing is copied: the run decoder reads straight
+ * from the mapping, so opening thousands of archived replays costs no heap.
+ *
+ * While playing, a keyframe (MatchSimulation.Snapshot + decoder position) is kept every
+ * KEYFRAME_TICKS. seek(tick) restores the nearest keyframe at or before the target and steps from
+ * there, so going backward never replays more than KEYFRAME_TICKS; the snapshot includes the match
+ * clock, so the tick-based timers (animations, countdown, popups) pick up where they were.
+ * Player's cooldowns still run on the wall clock, which stepping faster than real time doesn't follow.
+ *
+ * When the file stores the result (ReplayRecorder.end()), reaching the last tick compares
+ * MatchSimulation.checksum() with it and reports a replay that no longer ends the same way.
+ *
+ * usage: java game.ReplayPlayer <file.sbr> [tick]   prints the match state at that tick (default: end)
+ */
+public class ReplayPlayer {
+
+    public static final int KEYFRAME_TICKS = 600; // 10 s
+
+    private final MappedByteBuffer data;
+    private final int runsStart;
+    private final int runsEnd;
+
+    private final long seed;
+    private final boolean vsAI;
+    private final String p1Weapon;
+    private final String p2Weapon;
+    private final int tickCount;
+
+    // recorded result (hasResult) and, once the last tick was played, whether it still comes out
+    private final boolean hasResult;
+    private final int recordedWinner;
+    private final int recordedP1Health;
+    private final int recordedP2Health;
+    private final int recordedChecksum;
+    private int resultCheck; // 0 not checked yet, 1 same, -1 differs
+
+    private final MatchSimulation sim;
+
+    // keyframes[i] is tick i * KEYFRAME_TICKS, filled in as playback first gets there
+    private final List<Keyframe> keyframes = new ArrayList<>();
+
+    private static final class Keyframe {
+        final MatchSimulation.Snapshot state = new MatchSimulation.Snapshot();
+        int position, word, runRemaining, tick, p1Previous, p2Previous;
+    }
+
+    // run decoder
+    private int position;
+    private int word;
+    private int runRemaining;
+    private int tick;
+    private int p1Previous, p2Previous; // held last tick, for pressed/released edges
+
+    private ReplayPlayer(MappedByteBuffer data) {
+        this.data = data;
+
+        if (data.getInt() != ReplayRecorder.MAGIC) throw new IllegalArgumentException("not a replay file");
+        int version = data.get();
+        if (version != 1 && version != ReplayRecorder.VERSION) throw new IllegalArgumentException("unsupported replay version " + version);
+
+        int flags = data.get();
+        vsAI = (flags & ReplayRecorder.FLAG_VS_AI) != 0;
+        seed = data.getLong();
+        int width = data.getInt();
+        int height = data.getInt();
+        tickCount = data.getInt();
+        int runBytes = data.getInt();
+        if (version >= 2) {
+            hasResult = (flags & ReplayRecorder.FLAG_RESULT) != 0;
+            recordedWinner = data.get();
+            recordedP1Health = data.getShort();
+            recordedP2Health = data.getShort();
+            recordedChecksum = data.getInt();
+        } else {
+            hasResult = false;
+            recordedWinner = recordedP1Health = recordedP2Health = recordedChecksum = 0;
+        }
+        p1Weapon = readString(data);
+        p2Weapon = readString(data);
+
+        runsStart = data.position();
+        runsEnd = runsStart + runBytes;
+        if (runsEnd > data.limit()) throw new IllegalArgumentException("replay file is truncated");
+
+        sim = new MatchSimulation(p1Weapon, p2Weapon, width, height);
+        position = runsStart;
+        saveKeyframe(); // tick 0; from here on the match is only ever restored, never restarted
+    }
+
+    /** Maps the file read-only and sets up the match at tick 0. */
+    public static ReplayPlayer open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return new ReplayPlayer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /** Advances one recorded tick. Returns false once the recording is over. */
+    public boolean step() {
+        if (tick >= tickCount) return false;
+
+        if (runRemaining == 0) {
+            word ^= readVarint();
+            runRemaining = readVarint();
+        }
+        runRemaining--;
+        tick++;
+
+        int p1Held = word & InputSnapshot.BUTTONS;
+        int p2Held = (word >>> 8) & InputSnapshot.BUTTONS;
+        sim.step(InputSnapshot.of(p1Held, p1Previous), InputSnapshot.of(p2Held, p2Previous));
+        p1Previous = p1Held;
+        p2Previous = p2Held;
+
+        if (tick % KEYFRAME_TICKS == 0 && tick / KEYFRAME_TICKS == keyframes.size()) saveKeyframe();
+        if (tick == tickCount && hasResult && resultCheck == 0) checkResult();
+        return true;
+    }
+
+    /** Puts the match at the given tick (clamped to the recording). */
+    public void seek(int target) {
+        target = Math.max(0, Math.min(target, tickCount));
+
+        // nearest keyframe we have at or before the target; only used if it beats stepping from here
+        int k = Math.min(target / KEYFRAME_TICKS, keyframes.size() - 1);
+        Keyframe key = keyframes.get(k);
+        if (target < tick || key.tick > tick) restore(key);
+
+        while (tick < target) step();
+    }
+
+    private void saveKeyframe() {
+        Keyframe key = new Keyframe();
+        sim.save(key.state);
+        key.position = position;
+        key.word = word;
+        key.runRemaining = runRemaining;
+        key.tick = tick;
+        key.p1Previous = p1Previous;
+        key.p2Previous = p2Previous;
+        keyframes.add(key);
+    }
+
+    private void restore(Keyframe key) {
+        sim.restore(key.state);
+        position = key.position;
+        word = key.word;
+        runRemaining = key.runRemaining;
+        tick = key.tick;
+        p1Previous = key.p1Previous;
+        p2Previous = key.p2Previous;
+    }
+
+    // the recording's last tick: does it still end the way it did when recorded?
+    private void checkResult() {
+        resultCheck = sim.checksum() == recordedChecksum ? 1 : -1;
+        if (resultCheck < 0) {
+            System.out.printf("Replay diverged: recorded P1 %d HP, P2 %d HP, winner %d; played back P1 %d HP, P2 %d HP, winner %d%n",
+                    recordedP1Health, recordedP2Health, recordedWinner,
+                    sim.getPlayer1().getHealth(), sim.getPlayer2().getHealth(), sim.getWinner());
+        }
+    }
+
+    private int readVarint() {
+        int v = 0;
+        for (int shift = 0; position < runsEnd; shift += 7) {
+            byte b = data.get(position++);
+            v |= (b & 0x7f) << shift;
+            if (b >= 0) return v;
+        }
+        throw new IllegalStateException("replay runs end early at tick " + tick);
+    }
+
+    private static String readString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getShort()];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // =========================
+    //         GETTERS
+    // =========================
+    public MatchSimulation getSimulation() { return sim; }
+    public int getTick() { return tick; }
+    public int getTickCount() { return tickCount; }
+    public long getSeed() { return seed; }
+    public boolean isVsAI() { return vsAI; }
+    public String getP1Weapon() { return p1Weapon; }
+    public String getP2Weapon() { return p2Weapon; }
+    public boolean hasRecordedResult() { return hasResult; }
+    /** After the last tick was played: whether the match ended as recorded (always true without a stored result). */
+    public boolean matchesRecordedResult() { return resultCheck >= 0; }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("usage: java game.ReplayPlayer <file.sbr> [tick]");
+            return;
+        }
+        ReplayPlayer replay = open(Paths.get(args[0]));
+        int target = args.length > 1 ? Integer.parseInt(args[1]) : replay.getTickCount();
+
+        long start = System.nanoTime();
+        replay.seek(target);
+        long nanos = System.nanoTime() - start;
+
+        MatchSimulation s = replay.getSimulation();
+        System.out.printf("%s vs %s%s, %d ticks (%.1f s), seed %d%n",
+                replay.getP1Weapon(), replay.getP2Weapon(), replay.isVsAI() ? " (AI)" : "",
+                replay.getTickCount(), replay.getTickCount() / (double) MatchSimulation.TICK_RATE, replay.getSeed());
+        System.out.printf("tick %d: P1 %d HP, P2 %d HP%s  (seek took %.2f ms)%n",
+                replay.getTick(), s.getPlayer1().getHealth(), s.getPlayer2().getHealth(),
+                s.isGameOver() ? ", " + s.getWinnerText() : "", nanos / 1_000_000.0);
+        if (replay.getTick() == replay.getTickCount() && replay.hasRecordedResult()) {
+            System.out.println(replay.matchesRecordedResult() ? "result matches the recording" : "RESULT DIFFERS from the recording");
+        }
+    }
+}
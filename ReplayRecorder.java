@@ -0,0 +1,175 @@
+package game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ReplayRecorder - input-only match recording.
+ *
+ * The simulation only reads held buttons, so one tick is a 16 bit word (p1 held | p2 held << 8).
+ * Words are run-length encoded: each run is varint(word xor previous word) + varint(run length).
+ * Buttons change a few times per second, so a 3 minute match is a few KB.
+ *
+ * File layout (big endian):
+ *   int magic "SBR1", byte version, byte flags (bit 0 = vsAI, bit 1 = result stored), long seed,
+ *   int width, int height, int tickCount, int runBytes,
+ *   byte winner, short p1 HP, short p2 HP, int MatchSimulation.checksum() after the last tick,
+ *   short + UTF-8 p1 weapon, short + UTF-8 p2 weapon,
+ *   runBytes of runs
+ *
+ * record() only appends to an in-memory buffer; end() notes how the match ended, so ReplayPlayer
+ * can tell whether playing the inputs back still gives the same result; save() writes the file on a
+ * background thread.
+ */
+public class ReplayRecorder {
+
+    static final int MAGIC = 0x53425231; // "SBR1"
+    static final int VERSION = 2;       // 1: no result fields
+    static final int FLAG_VS_AI = 1;
+    static final int FLAG_RESULT = 2;
+
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "replay-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private long seed;
+    private String p1Weapon;
+    private String p2Weapon;
+    private boolean vsAI;
+    private int width;
+    private int height;
+
+    private byte[] runs = new byte[4096];
+    private int runBytes;
+    private int tickCount;
+
+    private int previousWord;   // word of the last flushed run
+    private int currentWord;
+    private int runLength;      // ticks of currentWord not flushed yet
+
+    // state after the last tick, stored only if end() saw that tick
+    private int resultTick = -1;
+    private int winner;
+    private int p1Health;
+    private int p2Health;
+    private int checksum;
+
+    /** Starts a new recording (match start / restart). */
+    public void begin(long seed, String p1Weapon, String p2Weapon, boolean vsAI, int width, int height) {
+        this.seed = seed;
+        this.p1Weapon = p1Weapon;
+        this.p2Weapon = p2Weapon;
+        this.vsAI = vsAI;
+        this.width = width;
+        this.height = height;
+
+        runBytes = 0;
+        tickCount = 0;
+        previousWord = 0;
+        currentWord = 0;
+        runLength = 0;
+        resultTick = -1;
+    }
+
+    /** The inputs passed to MatchSimulation.step() this tick. */
+    public void record(int p1Input, int p2Input) {
+        int word = InputSnapshot.held(p1Input) | (InputSnapshot.held(p2Input) << 8);
+        if (word != currentWord && runLength > 0) flushRun();
+        currentWord = word;
+        runLength++;
+        tickCount++;
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /** How the match stood after the last record(): winner (0 none), HP, MatchSimulation.checksum(). */
+    public void end(int winner, int p1Health, int p2Health, int checksum) {
+        resultTick = tickCount;
+        this.winner = winner;
+        this.p1Health = p1Health;
+        this.p2Health = p2Health;
+        this.checksum = checksum;
+    }
+
+    /** Complete file contents for what was recorded so far. */
+    public byte[] toBytes() {
+        if (runLength > 0) flushRun();
+
+        byte[] a = p1Weapon.getBytes(StandardCharsets.UTF_8);
+        byte[] b = p2Weapon.getBytes(StandardCharsets.UTF_8);
+
+        boolean result = resultTick == tickCount;
+
+        ByteBuffer out = ByteBuffer.allocate(43 + a.length + b.length + runBytes);
+        out.putInt(MAGIC);
+        out.put((byte) VERSION);
+        out.put((byte) ((vsAI ? FLAG_VS_AI : 0) | (result ? FLAG_RESULT : 0)));
+        out.putLong(seed);
+        out.putInt(width);
+        out.putInt(height);
+        out.putInt(tickCount);
+        out.putInt(runBytes);
+        out.put((byte) (result ? winner : 0));
+        out.putShort((short) (result ? p1Health : 0));
+        out.putShort((short) (result ? p2Health : 0));
+        out.putInt(result ? checksum : 0);
+        out.putShort((short) a.length).put(a);
+        out.putShort((short) b.length).put(b);
+        out.put(runs, 0, runBytes);
+        return out.array();
+    }
+
+    /** Writes the replay in the background; the file name is dated and names both weapons. */
+    public void save(Path dir) {
+        byte[] data = toBytes();
+        String name = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date())
+                + "-" + p1Weapon + "-vs-" + p2Weapon + ".sbr";
+
+        writer.execute(() -> {
+            try {
+                Files.createDirectories(dir);
+                Files.write(dir.resolve(name), data);
+            } catch (IOException e) {
+                System.out.println("Error saving replay " + name + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /** Replay folder: -Dgame.replays=<dir> (default "replays"), empty to turn recording off. */
+    public static Path replayDir() {
+        String dir = System.getProperty("game.replays", "replays");
+        return dir.isEmpty() ? null : Paths.get(dir);
+    }
+
+    // =========================
+    //         ENCODING
+    // =========================
+    private void flushRun() {
+        writeVarint(currentWord ^ previousWord);
+        writeVarint(runLength);
+        previousWord = currentWord;
+        runLength = 0;
+    }
+
+    private void writeVarint(int v) {
+        if (runBytes + 5 > runs.length) runs = Arrays.copyOf(runs, runs.length * 2);
+        while ((v & ~0x7f) != 0) {
+            runs[runBytes++] = (byte) ((v & 0x7f) | 0x80);
+            v >>>= 7;
+        }
+        runs[runBytes++] = (byte) v;
+    }
+}
@@ -0,0 +1,213 @@
+package game;
+
+import game.entities.Player;
+
+/**
+ * RolloutModel - a cut-down copy of a duel for MonteCarloPlanner to play forward thousands of times.
+ *
+ * Player can't be copied, so this is not the real match: it keeps only what decides a short exchange
+ * (position, height off the ground, health, the attack in progress, cooldowns, dodge, crouch) in
+ * plain int fields and steps it with simple rules tuned to feel like Player. Damage, knockback,
+ * height and cooldowns come from MoveTable where it sets them.
+ *
+ * Fighter 0 is the bot, fighter 1 its opponent. copyFrom() / step() allocate nothing.
+ */
+final class RolloutModel {
+
+    // ===== actions (one per tick in a rollout, or held for a whole plan step) =====
+    static final int A_IDLE = 0;
+    static final int A_TOWARD = 1;
+    static final int A_AWAY = 2;
+    static final int A_JUMP = 3;
+    static final int A_CROUCH = 4;
+    static final int A_DODGE = 5;   // dodge away from the opponent
+    static final int A_BASIC = 6;
+    static final int A_SKILL1 = 7;
+    static final int A_SKILL2 = 8;
+    static final int ACTIONS = 9;
+
+    // ===== rules =====
+    private static final int WALK_SPEED = 4;
+    private static final int JUMP_SPEED = 13;
+    private static final int GRAVITY = 1;
+    private static final int AIRBORNE_HEIGHT = 25;  // above this, LOW attacks miss
+    private static final int DODGE_TICKS = 12;
+    private static final int DODGE_SPEED = 8;
+    private static final int DODGE_COOLDOWN = 60;
+    private static final int ATTACK_TICKS = 14;
+    private static final int ATTACK_ACTIVE_FROM = 5; // wind-up before the hit can land
+    private static final int[] REACH = {0, 70, 90, 115};
+    private static final int[] FALLBACK_DAMAGE = {0, 6, 10, 16};
+    private static final int[] FALLBACK_COOLDOWN = {0, 24, 90, 180};
+    private static final int[] FALLBACK_HEIGHT = {0, MoveTable.HEIGHT_HIGH, MoveTable.HEIGHT_LOW, MoveTable.HEIGHT_HIGH};
+
+    // per-weapon move data, resolved once: [weaponId * 4 + attackType]
+    private static final int[] DAMAGE;
+    private static final int[] KNOCKBACK;
+    private static final int[] HEIGHT;
+    private static final int[] COOLDOWN;
+    static {
+        int n = MoveTable.weaponCount() * 4;
+        DAMAGE = new int[n];
+        KNOCKBACK = new int[n];
+        HEIGHT = new int[n];
+        COOLDOWN = new int[n];
+        for (int w = 0; w < MoveTable.weaponCount(); w++) {
+            for (int a = 1; a <= 3; a++) {
+                int i = w * 4 + a;
+                int d = MoveTable.damage(w, a);
+                int h = MoveTable.height(w, a);
+                int c = MoveTable.cooldownMs(w, a);
+                DAMAGE[i] = d != MoveTable.UNSET ? d : FALLBACK_DAMAGE[a];
+                KNOCKBACK[i] = MoveTable.knockback(w, a);
+                HEIGHT[i] = h != MoveTable.UNSET ? h : FALLBACK_HEIGHT[a];
+                COOLDOWN[i] = c != MoveTable.UNSET ? c * MatchSimulation.TICK_RATE / 1000 : FALLBACK_COOLDOWN[a];
+            }
+        }
+    }
+
+    // ===== state, [0] = bot, [1] = opponent =====
+    final int[] x = new int[2];
+    final int[] air = new int[2];        // height above the ground
+    final int[] vy = new int[2];
+    final int[] hp = new int[2];
+    final int[] weapon = new int[2];     // MoveTable weapon id
+    final int[] attack = new int[2];     // attack type in progress, 0 = none
+    final int[] attackTick = new int[2];
+    final boolean[] attackLanded = new boolean[2];
+    final int[] dodge = new int[2];      // dodge ticks left
+    final boolean[] crouch = new boolean[2];
+    final int[] cooldown = new int[2 * 4]; // [fighter * 4 + attackType], index 0 = dodge
+    int minX, maxX;
+
+    /** Reads the real fighters. Cooldowns only come in whole seconds, so they are rounded up. */
+    void read(Player bot, Player opponent, int opponentX, boolean opponentAttacking, int arenaWidth) {
+        readFighter(0, bot, bot.getX(), bot.isAttacking());
+        readFighter(1, opponent, opponentX, opponentAttacking);
+        minX = 0;
+        maxX = Math.max(0, arenaWidth - bot.getWidth());
+    }
+
+    private void readFighter(int f, Player p, int px, boolean attacking) {
+        x[f] = px;
+        air[f] = p.isJumping() ? AIRBORNE_HEIGHT + 10 : 0;
+        vy[f] = 0;
+        hp[f] = p.getHealth();
+        weapon[f] = Math.max(0, MoveTable.weaponId(p.getWeaponType()));
+        attack[f] = attacking ? Math.max(1, Math.min(3, p.getAttackType())) : 0;
+        attackTick[f] = attacking ? ATTACK_ACTIVE_FROM : 0;
+        attackLanded[f] = attacking && p.hasHitThisAttack();
+        dodge[f] = p.isDodging() ? DODGE_TICKS / 2 : 0;
+        crouch[f] = p.isCrouching();
+        for (int a = 1; a <= 3; a++) cooldown[f * 4 + a] = p.getCooldownRemainingSeconds(a) * MatchSimulation.TICK_RATE;
+        cooldown[f * 4] = p.getCooldownRemainingSeconds(4) * MatchSimulation.TICK_RATE;
+    }
+
+    void copyFrom(RolloutModel o) {
+        System.arraycopy(o.x, 0, x, 0, 2);
+        System.arraycopy(o.air, 0, air, 0, 2);
+        System.arraycopy(o.vy, 0, vy, 0, 2);
+        System.arraycopy(o.hp, 0, hp, 0, 2);
+        System.arraycopy(o.weapon, 0, weapon, 0, 2);
+        System.arraycopy(o.attack, 0, attack, 0, 2);
+        System.arraycopy(o.attackTick, 0, attackTick, 0, 2);
+        System.arraycopy(o.attackLanded, 0, attackLanded, 0, 2);
+        System.arraycopy(o.dodge, 0, dodge, 0, 2);
+        System.arraycopy(o.crouch, 0, crouch, 0, 2);
+        System.arraycopy(o.cooldown, 0, cooldown, 0, cooldown.length);
+        minX = o.minX;
+        maxX = o.maxX;
+    }
+
+    /** One tick with an action for each fighter. */
+    void step(int botAction, int opponentAction) {
+        act(0, botAction);
+        act(1, opponentAction);
+        move(0);
+        move(1);
+        strike(0, 1);
+        strike(1, 0);
+    }
+
+    boolean over() {
+        return hp[0] <= 0 || hp[1] <= 0;
+    }
+
+    /** Health lead change from `before`, plus a small pull toward a useful distance. */
+    int score(RolloutModel before) {
+        int lead = (hp[0] - before.hp[0]) - (hp[1] - before.hp[1]);
+        if (hp[1] <= 0) lead += 100;
+        if (hp[0] <= 0) lead -= 100;
+        int distance = Math.abs(x[0] - x[1]);
+        return lead * 16 - Math.abs(distance - REACH[1]) / 20;
+    }
+
+    // =========================
+    //          RULES
+    // =========================
+    private void act(int f, int action) {
+        crouch[f] = false;
+        if (dodge[f] > 0 || attack[f] != 0) return; // committed
+
+        int toward = x[f] < x[1 - f] ? 1 : -1;
+        boolean grounded = air[f] == 0;
+        switch (action) {
+            case A_TOWARD: x[f] += WALK_SPEED * toward; break;
+            case A_AWAY:   x[f] -= WALK_SPEED * toward; break;
+            case A_JUMP:   if (grounded) vy[f] = JUMP_SPEED; break;
+            case A_CROUCH: if (grounded) crouch[f] = true; break;
+            case A_DODGE:
+                if (cooldown[f * 4] == 0) {
+                    dodge[f] = DODGE_TICKS;
+                    cooldown[f * 4] = DODGE_COOLDOWN;
+                }
+                break;
+            case A_BASIC:  startAttack(f, 1); break;
+            case A_SKILL1: startAttack(f, 2); break;
+            case A_SKILL2: startAttack(f, 3); break;
+            default: break;
+        }
+    }
+
+    private void startAttack(int f, int type) {
+        if (cooldown[f * 4 + type] > 0) return;
+        attack[f] = type;
+        attackTick[f] = 0;
+        attackLanded[f] = false;
+        cooldown[f * 4 + type] = COOLDOWN[weapon[f] * 4 + type];
+    }
+
+    private void move(int f) {
+        for (int i = f * 4; i < f * 4 + 4; i++) {
+            if (cooldown[i] > 0) cooldown[i]--;
+        }
+
+        if (dodge[f] > 0) {
+            x[f] += x[f] < x[1 - f] ? -DODGE_SPEED : DODGE_SPEED;
+            dodge[f]--;
+        }
+        if (air[f] > 0 || vy[f] > 0) {
+            air[f] = Math.max(0, air[f] + vy[f]);
+            vy[f] = air[f] == 0 ? 0 : vy[f] - GRAVITY;
+        }
+        if (attack[f] != 0 && ++attackTick[f] >= ATTACK_TICKS) attack[f] = 0;
+
+        x[f] = Math.max(minX, Math.min(maxX, x[f]));
+    }
+
+    private void strike(int a, int t) {
+        int type = attack[a];
+        if (type == 0 || attackLanded[a] || attackTick[a] < ATTACK_ACTIVE_FROM) return;
+        if (Math.abs(x[a] - x[t]) > REACH[type]) return;
+        if (dodge[t] > 0) return;
+
+        int move = weapon[a] * 4 + type;
+        if (HEIGHT[move] == MoveTable.HEIGHT_LOW && air[t] > AIRBORNE_HEIGHT) return;
+        if (HEIGHT[move] == MoveTable.HEIGHT_HIGH && crouch[t]) return;
+
+        attackLanded[a] = true;
+        hp[t] -= DAMAGE[move];
+        x[t] += (x[t] < x[a] ? -1 : 1) * KNOCKBACK[move] * 2;
+        x[t] = Math.max(minX, Math.min(maxX, x[t]));
+    }
+}
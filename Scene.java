@@ -0,0 +1,15 @@
+package game;
+
+/**
+ * Scene - a screen shown by SceneManager (menu, character select, match).
+ * The hooks run on the EDT:
+ * - onStart(): the scene is now the window's content (start loops, grab focus)
+ * - onPause() / onResume(): the window was minimized / restored
+ * - onStop(): the scene is being replaced; stop everything it started, it is never shown again
+ */
+public interface Scene {
+    default void onStart() {}
+    default void onPause() {}
+    default void onResume() {}
+    default void onStop() {}
+}
@@ -0,0 +1,130 @@
+package game;
+
+import java.awt.Container;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.swing.JComponent;
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * SceneManager - switches what a window shows and owns the game loop thread.
+ *
+ * - show(window, scene) stops the current scene (if the content pane is one), swaps the content
+ *   pane and starts the new scene, so leaving a match always tears down its loop, listeners and sounds
+ * - one "game-loop" thread for the whole app (startLoop); a scene's loop must return once the scene
+ *   stops, the next scene's loop reuses the thread
+ * - live loops register themselves; a second after every switch any loop still running for a scene
+ *   that is no longer shown is reported (liveLoops() / -Dgame.debugScenes=true prints them all)
+ */
+public final class SceneManager {
+
+    private static final boolean DEBUG = Boolean.getBoolean("game.debugScenes");
+    private static final int LEAK_CHECK_MS = 1000;
+
+    private static final ScheduledExecutorService LOOP = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "game-loop");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // scene -> when its loop started (nanoTime)
+    private static final Map<Scene, Long> liveLoops = new ConcurrentHashMap<>();
+
+    private SceneManager() {}
+
+    /** Replaces the window's scene. Off the EDT it is queued there, unless the window isn't up yet (main()). */
+    public static void show(JFrame window, Scene next) {
+        if (!SwingUtilities.isEventDispatchThread() && window.isDisplayable()) {
+            SwingUtilities.invokeLater(() -> show(window, next));
+            return;
+        }
+
+        Container current = window.getContentPane();
+        if (current == next) return;
+        if (current instanceof Scene) ((Scene) current).onStop();
+        AudioEngine.get().stopAll(); // nothing from the old scene keeps playing
+
+        if (!(next instanceof JComponent)) throw new IllegalArgumentException("scene is not a component: " + next);
+        window.setContentPane((JComponent) next);
+        watchMinimize(window);
+        window.revalidate();
+        window.repaint();
+        ((JComponent) next).requestFocusInWindow();
+        StartupMetrics.sceneShown();
+        next.onStart();
+
+        if (DEBUG) System.out.println("Scene: " + name(current) + " -> " + name(next) + ", live loops: " + liveLoops());
+        Timer check = new Timer(LEAK_CHECK_MS, e -> reportLeaks(window));
+        check.setRepeats(false);
+        check.start();
+    }
+
+    // minimized window -> onPause, restored -> onResume (added once per window)
+    private static void watchMinimize(JFrame window) {
+        if (window.getRootPane().getClientProperty(SceneManager.class) != null) return;
+        window.getRootPane().putClientProperty(SceneManager.class, Boolean.TRUE);
+
+        window.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowIconified(WindowEvent e) {
+                if (window.getContentPane() instanceof Scene) ((Scene) window.getContentPane()).onPause();
+            }
+
+            @Override
+            public void windowDeiconified(WindowEvent e) {
+                if (window.getContentPane() instanceof Scene) ((Scene) window.getContentPane()).onResume();
+            }
+        });
+    }
+
+    // =========================
+    //        GAME LOOP
+    // =========================
+
+    /**
+     * Runs a scene's loop on the shared game-loop thread. The loop must return when the scene
+     * stops (cancelling the Future only interrupts it).
+     */
+    public static Future<?> startLoop(Scene scene, Runnable loop) {
+        return LOOP.submit(() -> {
+            liveLoops.put(scene, System.nanoTime());
+            try {
+                loop.run();
+            } finally {
+                liveLoops.remove(scene);
+            }
+        });
+    }
+
+    /** Scenes whose loop is running right now, with how long it has been running. */
+    public static List<String> liveLoops() {
+        List<String> result = new ArrayList<>();
+        long now = System.nanoTime();
+        for (Map.Entry<Scene, Long> e : liveLoops.entrySet()) {
+            result.add(String.format("%s (%.1f s)", name(e.getKey()), (now - e.getValue()) / 1e9));
+        }
+        return result;
+    }
+
+    private static void reportLeaks(JFrame window) {
+        Container shown = window.getContentPane();
+        for (Scene scene : liveLoops.keySet()) {
+            if (scene != shown) {
+                System.out.println("Leaked game loop: " + name(scene) + " is still running but not shown. Live loops: " + liveLoops());
+            }
+        }
+    }
+
+    private static String name(Object scene) {
+        return scene.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(scene));
+    }
+}
@@ -0,0 +1,29 @@
+package game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * SectionEvent - JFR event for one timed Metrics section (update, combat, AI, render parts...).
+ * Only committed while a recording has it enabled, e.g.
+ *   java -XX:StartFlightRecording=filename=game.jfr,settings=profile game.Main
+ * then look for "Stick Brawl / Section" in JDK Mission Control.
+ */
+@Name("game.Section")
+@Label("Section")
+@Category("Stick Brawl")
+@Description("Time spent in one instrumented game section")
+@StackTrace(false)
+public class SectionEvent extends jdk.jfr.Event {
+
+    @Label("Section")
+    public String section;
+
+    @Label("Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long nanos;
+}
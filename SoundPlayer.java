@@ -1,22 +1,17 @@
 package game;
 
-import javax.sound.sampled.*;
-import java.io.IOException;
-import java.net.URL;
-
+/**
+ * SoundPlayer - small facade over AudioEngine.
+ * Sounds are decoded once and mixed on the audio thread, play() returns immediately.
+ */
 public class SoundPlayer {
 
     public static void play(String path) {
-        try {
-            URL url = SoundPlayer.class.getResource(path);
-            if (url == null) return;
+        AudioEngine.get().play(path);
+    }
 
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(url);
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioIn);
-            clip.start();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    /** Decode sounds ahead of time (startup), so their first play has no delay. */
+    public static void preload(String... paths) {
+        AudioEngine.get().preload(paths);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,163 @@
+package game;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * SpriteAtlas:
+ * - packs many small frames into a few large sheets (shelf packing, tallest first)
+ * - every frame is stored twice: as loaded and pre-mirrored, so facing left is a plain sub-rect blit
+ * - built once at load time by SpriteRepository
+ */
+public class SpriteAtlas {
+
+    private static final int MAX_SHEET_SIZE = 2048;
+    private static final int PADDING = 1; // keeps neighbours from bleeding into each other
+
+    /** One packed frame: where it lives in its sheet, facing right and facing left. */
+    public static final class Frame {
+        private final BufferedImage sheet;
+        private final int sx, sy;            // facing right (as loaded)
+        private final int mirroredSx, mirroredSy;
+        private final int width, height;
+
+        private Frame(BufferedImage sheet, int sx, int sy, int mirroredSx, int mirroredSy, int width, int height) {
+            this.sheet = sheet;
+            this.sx = sx;
+            this.sy = sy;
+            this.mirroredSx = mirroredSx;
+            this.mirroredSy = mirroredSy;
+            this.width = width;
+            this.height = height;
+        }
+
+        /** Draws the frame with its top-left at (x, y); facingDir -1 uses the mirrored copy. */
+        public void draw(Graphics g, int x, int y, int facingDir) {
+            int fx = facingDir == -1 ? mirroredSx : sx;
+            int fy = facingDir == -1 ? mirroredSy : sy;
+            g.drawImage(sheet, x, y, x + width, y + height, fx, fy, fx + width, fy + height, null);
+        }
+
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+    }
+
+    private final Frame[] frames;
+    private final BufferedImage[] sheets;
+    private final long sourceBytes;
+
+    private SpriteAtlas(Frame[] frames, BufferedImage[] sheets, long sourceBytes) {
+        this.frames = frames;
+        this.sheets = sheets;
+        this.sourceBytes = sourceBytes;
+    }
+
+    /** Packed frames, same order as the images passed to pack(). */
+    public Frame[] getFrames() {
+        return frames;
+    }
+
+    public int getSheetCount() {
+        return sheets.length;
+    }
+
+    /** Bytes held by the atlas sheets (ARGB, mirrored copies included). */
+    public long getAtlasBytes() {
+        long bytes = 0;
+        for (BufferedImage sheet : sheets) bytes += (long) sheet.getWidth() * sheet.getHeight() * 4;
+        return bytes;
+    }
+
+    /** Bytes the same frames take as separate images (one copy each, flipped at draw time). */
+    public long getSourceBytes() {
+        return sourceBytes;
+    }
+
+    // =========================
+    //         PACKING
+    // =========================
+    public static SpriteAtlas pack(BufferedImage[] images) {
+        // tallest first keeps shelves tight
+        Integer[] order = new Integer[images.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingInt((Integer i) -> images[i].getHeight()).reversed());
+
+        // layout pass: place normal + mirrored copy side by side
+        int[] sheetOf = new int[images.length];
+        int[] px = new int[images.length];
+        int[] py = new int[images.length];
+        ArrayList<int[]> sheetSizes = new ArrayList<>(); // {width, height} used per sheet
+
+        int sheet = 0, x = 0, y = 0, shelfHeight = 0, usedWidth = 0;
+        for (int i : order) {
+            int w = images[i].getWidth() * 2 + PADDING * 2;
+            int h = images[i].getHeight() + PADDING;
+            if (w > MAX_SHEET_SIZE || h > MAX_SHEET_SIZE) {
+                throw new IllegalArgumentException("Frame too large for atlas: " + images[i].getWidth() + "x" + images[i].getHeight());
+            }
+
+            if (x + w > MAX_SHEET_SIZE) { // next shelf
+                y += shelfHeight;
+                x = 0;
+                shelfHeight = 0;
+            }
+            if (y + h > MAX_SHEET_SIZE) { // next sheet
+                sheetSizes.add(new int[]{usedWidth, y});
+                sheet++;
+                x = y = shelfHeight = usedWidth = 0;
+            }
+
+            sheetOf[i] = sheet;
+            px[i] = x;
+            py[i] = y;
+
+            x += w;
+            usedWidth = Math.max(usedWidth, x);
+            shelfHeight = Math.max(shelfHeight, h);
+        }
+        sheetSizes.add(new int[]{usedWidth, y + shelfHeight});
+
+        // draw pass
+        BufferedImage[] sheets = new BufferedImage[sheetSizes.size()];
+        Graphics2D[] gs = new Graphics2D[sheets.length];
+        for (int s = 0; s < sheets.length; s++) {
+            sheets[s] = createSheet(Math.max(1, sheetSizes.get(s)[0]), Math.max(1, sheetSizes.get(s)[1]));
+            gs[s] = sheets[s].createGraphics();
+        }
+
+        Frame[] frames = new Frame[images.length];
+        long sourceBytes = 0;
+        for (int i = 0; i < images.length; i++) {
+            BufferedImage img = images[i];
+            int w = img.getWidth();
+            int h = img.getHeight();
+            int mx = px[i] + w + PADDING;
+            Graphics2D g2 = gs[sheetOf[i]];
+
+            g2.drawImage(img, px[i], py[i], null);
+            g2.drawImage(img, mx + w, py[i], -w, h, null); // bake the mirror once
+
+            frames[i] = new Frame(sheets[sheetOf[i]], px[i], py[i], mx, py[i], w, h);
+            sourceBytes += (long) w * h * 4;
+        }
+        for (Graphics2D g2 : gs) g2.dispose();
+
+        return new SpriteAtlas(frames, sheets, sourceBytes);
+    }
+
+    private static BufferedImage createSheet(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        return gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+}
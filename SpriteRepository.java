@@ -0,0 +1,325 @@
+package game;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.imageio.ImageIO;
+
+/**
+ * SpriteRepository:
+ * - loads every weapon x attackType frame set once, in parallel on AssetRegistry's pool, off the game thread
+ * - frames are converted to screen-compatible images, packed into atlas sheets and turned into hit
+ *   masks; the decoded frames themselves are dropped after that, so each frame is in memory once
+ * - frame lists come from /game/sprites/weapons/manifest.txt, so loading works from a jar too
+ *   (regenerate it with: java game.SpriteRepository path/to/game/sprites/weapons)
+ *
+ * AnimationController.startAttack() only does getAtlasFrames(weapon, type): a map + array lookup.
+ * HitResolver tests against getHitMasks(weapon, type), so hit tests never read pixels.
+ */
+public final class SpriteRepository {
+
+    private static final String BASE = "/game/sprites/weapons/";
+    private static final String MANIFEST = BASE + "manifest.txt";
+
+    // frame2.png before frame10.png
+    private static final Comparator<String> FRAME_ORDER =
+            Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+
+    // weapon name -> frames[attackType] (index 0 unused, attack types start at 1),
+    // packed into atlas sheets (what AnimationController draws)
+    private static volatile Map<String, SpriteAtlas.Frame[][]> atlasFrames = Collections.emptyMap();
+    // same layout again, solid pixels of every frame (what HitResolver tests against)
+    private static volatile Map<String, HitMask[][]> hitMasks = Collections.emptyMap();
+    private static Future<?> loading;
+
+    private SpriteRepository() {}
+
+    /** Starts loading all sprites in the background (safe to call more than once). */
+    public static synchronized Future<?> preloadAsync() {
+        if (loading == null) {
+            ExecutorService starter = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "sprite-preload");
+                t.setDaemon(true);
+                return t;
+            });
+            loading = starter.submit(SpriteRepository::loadAll);
+            starter.shutdown();
+        }
+        return loading;
+    }
+
+    /** True once preloading has finished (or failed). */
+    public static synchronized boolean isLoaded() {
+        return loading != null && loading.isDone();
+    }
+
+    /** Blocks until preloading is done (startup / loading screens only, never the game loop). */
+    public static void awaitLoaded() {
+        try {
+            preloadAsync().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.out.println("Sprite preload failed: " + e.getCause());
+        }
+    }
+
+    /**
+     * Atlas frames for one attack (mirrored copies baked in), or null if the weapon/attack has no
+     * frames (or loading isn't done). The returned array is shared, callers must not modify it.
+     */
+    public static SpriteAtlas.Frame[] getAtlasFrames(String weapon, int attackType) {
+        SpriteAtlas.Frame[][] byAttack = atlasFrames.get(weapon);
+        if (byAttack == null || attackType <= 0 || attackType >= byAttack.length) return null;
+        return byAttack[attackType];
+    }
+
+    /** Hit masks for one attack, one per frame, or null like getAtlasFrames(). */
+    public static HitMask[] getHitMasks(String weapon, int attackType) {
+        HitMask[][] byAttack = hitMasks.get(weapon);
+        if (byAttack == null || attackType <= 0 || attackType >= byAttack.length) return null;
+        return byAttack[attackType];
+    }
+
+    // =========================
+    //         LOADING
+    // =========================
+    private static void loadAll() {
+        long start = System.nanoTime();
+
+        // weapon -> attackType -> sorted frame paths
+        Map<String, TreeMap<Integer, List<String>>> layout = readLayout();
+        if (layout.isEmpty()) {
+            System.out.println("No weapon sprites found under " + BASE);
+            return;
+        }
+
+        ExecutorService pool = AssetRegistry.pool(); // bounded, shared with the backgrounds
+
+        try {
+            // submit every frame decode first, then collect
+            Map<String, Map<Integer, List<Future<BufferedImage>>>> pending = new HashMap<>();
+            for (Map.Entry<String, TreeMap<Integer, List<String>>> weapon : layout.entrySet()) {
+                Map<Integer, List<Future<BufferedImage>>> byAttack = new TreeMap<>();
+                for (Map.Entry<Integer, List<String>> attack : weapon.getValue().entrySet()) {
+                    List<Future<BufferedImage>> frames = new ArrayList<>();
+                    for (String path : attack.getValue()) {
+                        frames.add(pool.submit(() -> decode(path)));
+                    }
+                    byAttack.put(attack.getKey(), frames);
+                }
+                pending.put(weapon.getKey(), byAttack);
+            }
+
+            Map<String, BufferedImage[][]> loaded = new HashMap<>();
+            int frameCount = 0;
+            for (Map.Entry<String, Map<Integer, List<Future<BufferedImage>>>> weapon : pending.entrySet()) {
+                int maxAttack = Collections.max(weapon.getValue().keySet());
+                BufferedImage[][] byAttack = new BufferedImage[maxAttack + 1][];
+
+                for (Map.Entry<Integer, List<Future<BufferedImage>>> attack : weapon.getValue().entrySet()) {
+                    List<BufferedImage> frames = new ArrayList<>();
+                    for (Future<BufferedImage> f : attack.getValue()) {
+                        BufferedImage img = f.get();
+                        if (img != null) frames.add(img);
+                    }
+                    if (!frames.isEmpty()) {
+                        byAttack[attack.getKey()] = frames.toArray(new BufferedImage[0]);
+                        frameCount += frames.size();
+                    }
+                }
+                loaded.put(weapon.getKey(), byAttack);
+            }
+
+            Map<String, SpriteAtlas.Frame[][]> packed = packAtlas(loaded, frameCount);
+            Map<String, HitMask[][]> masks = buildMasks(loaded);
+
+            // `loaded` goes out of scope here: the atlas sheets and masks are all that's kept
+            atlasFrames = Collections.unmodifiableMap(packed);
+            hitMasks = Collections.unmodifiableMap(masks);
+            System.out.printf("Loaded %d weapon frames in %.1f ms%n",
+                    frameCount, (System.nanoTime() - start) / 1_000_000.0);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.out.println("Error loading weapon animation: " + e.getCause());
+        }
+    }
+
+    // Packs every loaded frame into shared sheets and mirrors the frames[weapon][attackType] layout
+    private static Map<String, SpriteAtlas.Frame[][]> packAtlas(Map<String, BufferedImage[][]> loaded, int frameCount) {
+        BufferedImage[] all = new BufferedImage[frameCount];
+        int n = 0;
+        for (BufferedImage[][] byAttack : loaded.values()) {
+            for (BufferedImage[] frames : byAttack) {
+                if (frames == null) continue;
+                for (BufferedImage f : frames) all[n++] = f;
+            }
+        }
+
+        SpriteAtlas atlas = SpriteAtlas.pack(all);
+        SpriteAtlas.Frame[] packed = atlas.getFrames();
+
+        // same iteration order as above
+        Map<String, SpriteAtlas.Frame[][]> result = new HashMap<>();
+        n = 0;
+        for (Map.Entry<String, BufferedImage[][]> weapon : loaded.entrySet()) {
+            BufferedImage[][] byAttack = weapon.getValue();
+            SpriteAtlas.Frame[][] atlasByAttack = new SpriteAtlas.Frame[byAttack.length][];
+            for (int a = 0; a < byAttack.length; a++) {
+                if (byAttack[a] == null) continue;
+                atlasByAttack[a] = Arrays.copyOfRange(packed, n, n + byAttack[a].length);
+                n += byAttack[a].length;
+            }
+            result.put(weapon.getKey(), atlasByAttack);
+        }
+
+        System.out.printf("Sprite atlas: %d sheet(s), %.1f KB (normal + mirrored) vs %.1f KB as separate frames%n",
+                atlas.getSheetCount(), atlas.getAtlasBytes() / 1024.0, atlas.getSourceBytes() / 1024.0);
+        return result;
+    }
+
+    private static Map<String, HitMask[][]> buildMasks(Map<String, BufferedImage[][]> loaded) {
+        Map<String, HitMask[][]> result = new HashMap<>();
+        for (Map.Entry<String, BufferedImage[][]> weapon : loaded.entrySet()) {
+            BufferedImage[][] byAttack = weapon.getValue();
+            HitMask[][] masksByAttack = new HitMask[byAttack.length][];
+            for (int a = 0; a < byAttack.length; a++) {
+                if (byAttack[a] == null) continue;
+                masksByAttack[a] = new HitMask[byAttack[a].length];
+                for (int f = 0; f < byAttack[a].length; f++) masksByAttack[a][f] = HitMask.fromAlpha(byAttack[a][f]);
+            }
+            result.put(weapon.getKey(), masksByAttack);
+        }
+        return result;
+    }
+
+    private static BufferedImage decode(String path) {
+        long t = Metrics.begin();
+        try (InputStream in = SpriteRepository.class.getResourceAsStream(path)) {
+            if (in == null) {
+                System.out.println("Missing sprite frame: " + path);
+                return null;
+            }
+            BufferedImage raw = ImageIO.read(in);
+            return raw == null ? null : toCompatible(raw, Transparency.TRANSLUCENT);
+        } catch (IOException e) {
+            System.out.println("Error loading sprite frame " + path + ": " + e.getMessage());
+            return null;
+        } finally {
+            Metrics.end(Metrics.SPRITE_LOAD, t);
+        }
+    }
+
+    // copy into the screen's pixel layout so drawImage never converts per frame (AssetRegistry uses it too)
+    static BufferedImage toCompatible(BufferedImage src, int transparency) {
+        if (GraphicsEnvironment.isHeadless()) return src;
+
+        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        if (src.getColorModel().equals(gc.getColorModel(transparency))) return src;
+
+        BufferedImage dst = gc.createCompatibleImage(src.getWidth(), src.getHeight(), transparency);
+        Graphics2D g2 = dst.createGraphics();
+        g2.drawImage(src, 0, 0, null);
+        g2.dispose();
+        return dst;
+    }
+
+    // Frame layout from the manifest, falling back to a directory scan when running from class folders
+    private static Map<String, TreeMap<Integer, List<String>>> readLayout() {
+        List<String> entries = new ArrayList<>();
+
+        try (InputStream in = SpriteRepository.class.getResourceAsStream(MANIFEST)) {
+            if (in != null) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) entries.add(line);
+                }
+            } else {
+                URL url = SpriteRepository.class.getResource(BASE);
+                if (url != null && "file".equals(url.getProtocol())) {
+                    entries = scan(new File(url.toURI()));
+                } else {
+                    System.out.println("No sprite manifest found: " + MANIFEST);
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("Error reading sprite manifest: " + e.getMessage());
+        }
+
+        Map<String, TreeMap<Integer, List<String>>> layout = new TreeMap<>();
+        for (String entry : entries) {
+            // <weapon>/attack<N>/<frame>.png
+            String[] parts = entry.split("/");
+            if (parts.length != 3 || !parts[1].startsWith("attack")) continue;
+
+            int attackType;
+            try {
+                attackType = Integer.parseInt(parts[1].substring("attack".length()));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+
+            layout.computeIfAbsent(parts[0], k -> new TreeMap<>())
+                  .computeIfAbsent(attackType, k -> new ArrayList<>())
+                  .add(BASE + entry);
+        }
+        for (TreeMap<Integer, List<String>> byAttack : layout.values()) {
+            for (List<String> frames : byAttack.values()) frames.sort(FRAME_ORDER);
+        }
+        return layout;
+    }
+
+    // <weapon>/attack<N>/<frame>.png entries under the weapons folder, sorted
+    private static List<String> scan(File weaponsDir) {
+        List<String> entries = new ArrayList<>();
+        File[] weapons = weaponsDir.listFiles(File::isDirectory);
+        if (weapons == null) return entries;
+
+        for (File weapon : weapons) {
+            File[] attacks = weapon.listFiles(f -> f.isDirectory() && f.getName().startsWith("attack"));
+            if (attacks == null) continue;
+            for (File attack : attacks) {
+                File[] frames = attack.listFiles((d, name) -> name.endsWith(".png"));
+                if (frames == null) continue;
+                for (File frame : frames) {
+                    entries.add(weapon.getName() + "/" + attack.getName() + "/" + frame.getName());
+                }
+            }
+        }
+        Collections.sort(entries);
+        return entries;
+    }
+
+    /** Build step: writes manifest.txt into the given sprites/weapons directory. */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("usage: java game.SpriteRepository <path to game/sprites/weapons>");
+            return;
+        }
+        File dir = new File(args[0]);
+        List<String> entries = scan(dir);
+
+        try (PrintWriter out = new PrintWriter(new File(dir, "manifest.txt"), StandardCharsets.UTF_8)) {
+            out.println("# generated by game.SpriteRepository, one frame per line: <weapon>/attack<N>/<frame>.png");
+            for (String entry : entries) out.println(entry);
+        }
+        System.out.println("Wrote " + entries.size() + " frames to " + new File(dir, "manifest.txt"));
+    }
+}
@@ -0,0 +1,46 @@
+package game;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StartupMetrics - how long the game takes to come up, printed once each:
+ * - cold start: JVM launch to main() (class loading, what an AppCDS archive shortens, see README)
+ * - first frame of every scene kind: since JVM launch and since the scene was shown,
+ *   so "match" is the time from the click in character select to the fight on screen
+ * - assets ready: preloadAll() to the last background / sprite decoded
+ */
+public final class StartupMetrics {
+
+    private static final Set<String> reported = ConcurrentHashMap.newKeySet();
+    private static volatile long sceneShownAt = System.nanoTime();
+
+    private StartupMetrics() {}
+
+    /** First line of main(). */
+    public static void mainEntered() {
+        System.out.printf("Startup: cold start (JVM launch -> main) %d ms%n", uptimeMillis());
+    }
+
+    /** SceneManager calls this when it switches scenes. */
+    static void sceneShown() {
+        sceneShownAt = System.nanoTime();
+    }
+
+    /** Call from a scene's paint; only the first frame per scene kind is reported. */
+    public static void firstFrame(String scene) {
+        if (reported.contains(scene) || !reported.add(scene)) return;
+        System.out.printf("Startup: first %s frame %d ms after JVM launch, %.1f ms after the scene was shown%n",
+                scene, uptimeMillis(), (System.nanoTime() - sceneShownAt) / 1_000_000.0);
+    }
+
+    static void assetsReady(long nanos) {
+        System.out.printf("Startup: all assets decoded in %.1f ms (%d threads), %d ms after JVM launch%n",
+                nanos / 1_000_000.0, AssetRegistry.THREADS, uptimeMillis());
+    }
+
+    private static long uptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
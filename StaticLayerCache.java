@@ -0,0 +1,68 @@
+package game;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * StaticLayerCache:
+ * - pre-renders layers that never change during a scene (scaled background, overlays, gradients)
+ * - stored as a screen-compatible image so the blit stays on the fast path
+ * - rebuilt only when the panel size changes (or invalidate() is called)
+ */
+public class StaticLayerCache {
+
+    /** Paints the static content once into the cache image. */
+    public interface Painter {
+        void paint(Graphics2D g2, int width, int height);
+    }
+
+    private final Painter painter;
+    private BufferedImage image;
+    private int width = -1;
+    private int height = -1;
+
+    public StaticLayerCache(Painter painter) {
+        this.painter = painter;
+    }
+
+    /** Draws the cached layer, rebuilding it first if the size changed. */
+    public synchronized void draw(Graphics g, int width, int height) {
+        if (width <= 0 || height <= 0) return;
+
+        if (image == null || width != this.width || height != this.height) {
+            rebuild(width, height);
+        }
+        g.drawImage(image, 0, 0, null);
+    }
+
+    /** Forces a rebuild on the next draw (e.g. the static content itself changed). */
+    public synchronized void invalidate() {
+        image = null;
+    }
+
+    private void rebuild(int width, int height) {
+        if (image != null) image.flush();
+
+        image = createCompatibleImage(width, height);
+        this.width = width;
+        this.height = height;
+
+        Graphics2D g2 = image.createGraphics();
+        try {
+            g2.setColor(Color.BLACK);
+            g2.fillRect(0, 0, width, height);
+            painter.paint(g2, width, height);
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    private static BufferedImage createCompatibleImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        return gc.createCompatibleImage(width, height, Transparency.OPAQUE);
+    }
+}
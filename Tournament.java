@@ -0,0 +1,196 @@
+package game;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Tournament - headless AI-vs-AI balance runs.
+ *
+ * Plays every weapon pairing (mirrors included) N times on a ForkJoinPool. Both sides are driven
+ * by AIController and each match runs on MatchSimulation with no display, as fast as the CPU allows.
+ * Each fork-join leaf keeps its own Stats and results are merged on the way up, so workers share nothing.
+ *
+ * usage: java game.Tournament [matchesPerPairing=1000] [threads=all cores] [seed=42]
+ */
+public class Tournament {
+
+    public static final String[] WEAPONS = MoveTable.weaponNames();
+    private static final int ATTACK_TYPES = 4;               // index 1..3
+    private static final int MAX_TICKS = 180 * MatchSimulation.TICK_RATE; // 3 min then it's a draw
+    private static final int LEAF_MATCHES = 16;              // matches per fork-join leaf
+
+    /** Aggregated results for one pairing (P1 weapon vs P2 weapon). */
+    static final class Stats {
+        long matches, p1Wins, p2Wins, draws;
+        long killTicks;                                      // summed over decided matches
+        final long[][] damage = new long[3][ATTACK_TYPES];   // [side 1/2][attackType], index 0 unused side
+        final long[][] hits = new long[3][ATTACK_TYPES];
+        final long[] knockback = new long[3];                // [side]
+
+        void merge(Stats o) {
+            matches += o.matches;
+            p1Wins += o.p1Wins;
+            p2Wins += o.p2Wins;
+            draws += o.draws;
+            killTicks += o.killTicks;
+            for (int side = 1; side <= 2; side++) {
+                knockback[side] += o.knockback[side];
+                for (int t = 0; t < ATTACK_TYPES; t++) {
+                    damage[side][t] += o.damage[side][t];
+                    hits[side][t] += o.hits[side][t];
+                }
+            }
+        }
+    }
+
+    // Plays matches [from, to) of one pairing
+    private static final class MatchBatch extends RecursiveTask<Stats> {
+        private final String p1Weapon, p2Weapon;
+        private final long seed;
+        private final int from, to;
+
+        MatchBatch(String p1Weapon, String p2Weapon, long seed, int from, int to) {
+            this.p1Weapon = p1Weapon;
+            this.p2Weapon = p2Weapon;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (to - from <= LEAF_MATCHES) {
+                Stats stats = new Stats();
+                for (int i = from; i < to; i++) playMatch(p1Weapon, p2Weapon, seed * 1_000_003L + i, stats);
+                return stats;
+            }
+            int mid = (from + to) >>> 1;
+            MatchBatch left = new MatchBatch(p1Weapon, p2Weapon, seed, from, mid);
+            left.fork();
+            Stats right = new MatchBatch(p1Weapon, p2Weapon, seed, mid, to).compute();
+            right.merge(left.join());
+            return right;
+        }
+    }
+
+    /** One AI-vs-AI match, results added to stats. */
+    static void playMatch(String p1Weapon, String p2Weapon, long seed, Stats stats) {
+        MatchSimulation sim = new MatchSimulation(p1Weapon, p2Weapon, 800, 600);
+        sim.skipCountdown();
+        sim.setListener(new MatchSimulation.Listener() {
+            @Override
+            public void onHit(int attacker, int attackType, int damage, int force) {
+                if (attackType < 0 || attackType >= ATTACK_TYPES) attackType = 0;
+                stats.damage[attacker][attackType] += damage;
+                stats.hits[attacker][attackType]++;
+                stats.knockback[attacker] += force;
+            }
+        });
+
+        Random rng = new Random(seed);
+        AIController ai1 = new AIController(sim.getPlayer1(), sim.getPlayer2(), new Random(rng.nextLong()));
+        AIController ai2 = new AIController(sim.getPlayer2(), sim.getPlayer1(), new Random(rng.nextLong()));
+
+        while (!sim.isGameOver() && sim.getTick() < MAX_TICKS) {
+            ai1.maybeThink();
+            ai2.maybeThink();
+            sim.step(ai1.nextInput(), ai2.nextInput());
+        }
+
+        stats.matches++;
+        if (sim.getWinner() == 1) stats.p1Wins++;
+        else if (sim.getWinner() == 2) stats.p2Wins++;
+        else stats.draws++;
+        if (sim.getWinner() != 0) stats.killTicks += sim.getTick();
+    }
+
+    public static void main(String[] args) {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+        System.out.printf("Tournament: %d matches per pairing, %d threads, seed %d%n", matches, threads, seed);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+
+        // submit every pairing, then collect (pairings run side by side)
+        int n = WEAPONS.length;
+        MatchBatch[][] batches = new MatchBatch[n][n];
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                batches[a][b] = new MatchBatch(WEAPONS[a], WEAPONS[b], seed + a * n + b, 0, matches);
+                pool.execute(batches[a][b]);
+            }
+        }
+
+        Stats[][] results = new Stats[n][n];
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) results[a][b] = batches[a][b].join();
+        }
+        pool.shutdown();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        printReport(results, seconds);
+    }
+
+    private static void printReport(Stats[][] results, double seconds) {
+        long total = 0;
+        long[] weaponMatches = new long[WEAPONS.length];
+        long[] weaponWins = new long[WEAPONS.length];
+        long[][] weaponDamage = new long[WEAPONS.length][ATTACK_TYPES];
+        long[][] weaponHits = new long[WEAPONS.length][ATTACK_TYPES];
+        long[] weaponKnockback = new long[WEAPONS.length];
+
+        System.out.println();
+        System.out.printf("%-8s vs %-8s %8s %8s %8s %7s %10s%n", "P1", "P2", "matches", "P1 win%", "P2 win%", "draw%", "avg TTK s");
+        for (int a = 0; a < WEAPONS.length; a++) {
+            for (int b = 0; b < WEAPONS.length; b++) {
+                Stats s = results[a][b];
+                total += s.matches;
+                long decided = s.p1Wins + s.p2Wins;
+                System.out.printf("%-8s vs %-8s %8d %7.1f%% %7.1f%% %6.1f%% %10.2f%n",
+                        WEAPONS[a], WEAPONS[b], s.matches,
+                        pct(s.p1Wins, s.matches), pct(s.p2Wins, s.matches), pct(s.draws, s.matches),
+                        decided == 0 ? 0.0 : s.killTicks / (double) decided / MatchSimulation.TICK_RATE);
+
+                // fold into per-weapon totals (side 1 is weapon a, side 2 is weapon b)
+                weaponMatches[a] += s.matches;
+                weaponMatches[b] += s.matches;
+                weaponWins[a] += s.p1Wins;
+                weaponWins[b] += s.p2Wins;
+                weaponKnockback[a] += s.knockback[1];
+                weaponKnockback[b] += s.knockback[2];
+                for (int t = 1; t < ATTACK_TYPES; t++) {
+                    weaponDamage[a][t] += s.damage[1][t];
+                    weaponDamage[b][t] += s.damage[2][t];
+                    weaponHits[a][t] += s.hits[1][t];
+                    weaponHits[b][t] += s.hits[2][t];
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-8s %7s %12s %12s %12s %14s%n", "weapon", "win%", "dmg basic", "dmg skill1", "dmg skill2", "knockback/match");
+        for (int w = 0; w < WEAPONS.length; w++) {
+            System.out.printf("%-8s %6.1f%% %12s %12s %12s %14.1f%n",
+                    WEAPONS[w], pct(weaponWins[w], weaponMatches[w]),
+                    damageCell(weaponDamage[w][1], weaponHits[w][1]),
+                    damageCell(weaponDamage[w][2], weaponHits[w][2]),
+                    damageCell(weaponDamage[w][3], weaponHits[w][3]),
+                    weaponMatches[w] == 0 ? 0.0 : weaponKnockback[w] / (double) weaponMatches[w]);
+        }
+
+        System.out.printf("%n%d matches in %.2f s (%.0f matches/s)%n", total, seconds, total / seconds);
+    }
+
+    // "total (hits)"
+    private static String damageCell(long damage, long hits) {
+        return damage + " (" + hits + ")";
+    }
+
+    private static double pct(long part, long whole) {
+        return whole == 0 ? 0.0 : 100.0 * part / whole;
+    }
+}
@@ -0,0 +1,151 @@
+package game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayDeque;
+import java.util.Random;
+
+/**
+ * UdpTransport - input exchange for NetSession over one non-blocking DatagramChannel.
+ *
+ * Packet: short magic, int ack (remote ticks we have), int checksum tick, int checksum,
+ * int first tick, short count, count x held byte. The checksum is MatchSimulation.checksum() after the
+ * newest tick this side has settled (-1: none yet), so the peers can tell when they drift apart.
+ * Every packet repeats all local inputs the peer hasn't acked yet (up to WINDOW ticks),
+ * so a lost packet is covered by the next one and nothing is ever resent on a timer.
+ *
+ * Built-in link simulator for testing on one box: drop a percentage of outgoing packets and
+ * delay the rest by latency +- jitter (all on the game thread, no extra threads).
+ */
+public class UdpTransport implements Closeable {
+
+    private static final short MAGIC = 0x5342; // "SB"
+    private static final int WINDOW = 64;      // ~1 s of inputs per packet at most
+    private static final int HEADER = 2 + 4 + 4 + 4 + 4 + 2;
+
+    private final DatagramChannel channel;
+    private final InetSocketAddress peer;
+    private final ByteBuffer out = ByteBuffer.allocate(HEADER + WINDOW);
+    private final ByteBuffer in = ByteBuffer.allocate(1500);
+
+    private int peerAck = 0; // how many of our ticks the peer has confirmed
+
+    // link simulator
+    private final int lossPercent;
+    private final int latencyMs;
+    private final int jitterMs;
+    private final Random rng = new Random();
+    private final ArrayDeque<Delayed> delayed = new ArrayDeque<>();
+
+    private long sent, received, dropped;
+
+    private static final class Delayed {
+        final long sendAt;
+        final byte[] packet;
+
+        Delayed(long sendAt, byte[] packet) {
+            this.sendAt = sendAt;
+            this.packet = packet;
+        }
+    }
+
+    public UdpTransport(int localPort, InetSocketAddress peer) throws IOException {
+        this(localPort, peer, 0, 0, 0);
+    }
+
+    /** With the link simulator: lossPercent of packets dropped, the rest delayed latencyMs +- jitterMs. */
+    public UdpTransport(int localPort, InetSocketAddress peer, int lossPercent, int latencyMs, int jitterMs) throws IOException {
+        this.peer = peer;
+        this.lossPercent = lossPercent;
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+
+        channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(localPort));
+        channel.configureBlocking(false);
+    }
+
+    /** Sends the oldest (up to WINDOW) local inputs the peer hasn't acked, plus our ack and checksum. */
+    void send(byte[] localHeld, int localTicks, int ack, int sumTick, int sum) {
+        int first = peerAck; // oldest first, so the peer never sees a gap
+        int count = Math.min(localTicks - first, WINDOW);
+
+        out.clear();
+        out.putShort(MAGIC);
+        out.putInt(ack);
+        out.putInt(sumTick);
+        out.putInt(sum);
+        out.putInt(first);
+        out.putShort((short) count);
+        out.put(localHeld, first, count);
+        out.flip();
+
+        if (lossPercent > 0 && rng.nextInt(100) < lossPercent) {
+            dropped++;
+        } else if (latencyMs > 0 || jitterMs > 0) {
+            long delay = latencyMs + (jitterMs > 0 ? rng.nextInt(jitterMs * 2 + 1) - jitterMs : 0);
+            byte[] copy = new byte[out.remaining()];
+            out.get(copy);
+            delayed.add(new Delayed(System.nanoTime() + Math.max(0, delay) * 1_000_000L, copy));
+        } else {
+            write(out);
+        }
+        flushDelayed();
+    }
+
+    /** Drains every waiting packet into the session. */
+    void receive(NetSession session) {
+        flushDelayed();
+        try {
+            while (true) {
+                in.clear();
+                if (channel.receive(in) == null) return;
+                in.flip();
+
+                if (in.remaining() < HEADER || in.getShort() != MAGIC) continue;
+                int ack = in.getInt();
+                int sumTick = in.getInt();
+                int sum = in.getInt();
+                int first = in.getInt();
+                int count = in.getShort();
+                if (count < 0 || in.remaining() < count) continue;
+
+                received++;
+                peerAck = Math.max(peerAck, ack);
+                for (int i = 0; i < count; i++) session.onRemoteInput(first + i, in.get() & 0xff);
+                session.onRemoteChecksum(sumTick, sum);
+            }
+        } catch (IOException e) {
+            System.out.println("Net receive error: " + e.getMessage());
+        }
+    }
+
+    // jitter can reorder packets on a real link too; here they just leave in queue order once due
+    private void flushDelayed() {
+        long now = System.nanoTime();
+        while (!delayed.isEmpty() && delayed.peek().sendAt <= now) {
+            write(ByteBuffer.wrap(delayed.poll().packet));
+        }
+    }
+
+    private void write(ByteBuffer packet) {
+        try {
+            channel.send(packet, peer);
+            sent++;
+        } catch (IOException e) {
+            System.out.println("Net send error: " + e.getMessage());
+        }
+    }
+
+    public String getStatsLine() {
+        return String.format("packets sent %d, received %d, dropped by simulator %d", sent, received, dropped);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
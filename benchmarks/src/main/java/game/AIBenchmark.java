@@ -0,0 +1,54 @@
+package game;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * AIBenchmark:
+ * - think(): build a fresh command plan (int commands in the ring queue)
+ * - thinkAndDrain(): a plan played to the end, hold ticks included
+ * - tick(): what GamePanel does per tick (maybeThink + nextInput), per difficulty
+ * All three should report 0 B/op with -prof gc.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class AIBenchmark {
+
+    @Param({"EASY", "NORMAL", "HARD"})
+    public AIController.Difficulty difficulty;
+
+    private AIController ai;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        MatchSimulation sim = new MatchSimulation("Axe", "Katana", 800, 600);
+        sim.skipCountdown();
+        sim.getPlayer2().setX(sim.getPlayer1().getX() + 120); // mid-range: attack / bait branch
+        ai = new AIController(sim.getPlayer2(), sim.getPlayer1(), new Random(7), difficulty);
+    }
+
+    @Benchmark
+    public void think() {
+        ai.think();
+    }
+
+    @Benchmark
+    public int thinkAndDrain() {
+        ai.think();
+        int last = InputSnapshot.NONE;
+        for (int i = 0; i < 12; i++) last = ai.nextInput(); // plans hold for at most ~10 ticks
+        return last;
+    }
+
+    @Benchmark
+    public int tick() {
+        ai.maybeThink();
+        return ai.nextInput();
+    }
+}
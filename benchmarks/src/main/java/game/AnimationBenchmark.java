@@ -0,0 +1,63 @@
+package game;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * AnimationBenchmark:
+ * - startAttack(): frame lookup when an attack begins (this used to decode PNGs via loadFrames)
+ * - startAndDraw(): startAttack + update + one frame blit into an offscreen image
+ *
+ * Needs the sprites on the classpath (benchmarks/pom.xml copies them from the game tree).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class AnimationBenchmark {
+
+    @Param({"Katana", "Axe", "Scythe"})
+    public String weapon;
+
+    private AnimationController animation;
+    private int attackType;
+
+    private BufferedImage image;
+    private Graphics2D g2;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SpriteRepository.awaitLoaded();
+        animation = new AnimationController(weapon);
+
+        image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        g2 = image.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        g2.dispose();
+    }
+
+    @Benchmark
+    public void startAttack() {
+        animation.startAttack(nextAttackType());
+    }
+
+    @Benchmark
+    public void startAndDraw() {
+        animation.startAttack(nextAttackType());
+        animation.update();
+        animation.draw(g2, 400, 300, (attackType & 1) == 0 ? 1 : -1);
+    }
+
+    private int nextAttackType() {
+        attackType = attackType % 3 + 1; // 1, 2, 3, 1, ...
+        return attackType;
+    }
+}
@@ -0,0 +1,27 @@
+package game;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkMain - runs every benchmark (or the ones matching args[0]) with the GC profiler,
+ * so each result comes with gc.alloc.rate.norm (bytes allocated per operation).
+ *
+ * Same as: java -jar target/benchmarks.jar -prof gc [regex]
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "game\\..*Benchmark";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,79 @@
+package game;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import game.entities.Player;
+
+/**
+ * CombatBenchmark:
+ * - handleCombat() with both players mid-attack and overlapping (the expensive branch)
+ * - checkPlayerCollision() on overlapping bodies (positions reset every call)
+ * - a full MatchSimulation.step() driven by two AIControllers, for context
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CombatBenchmark {
+
+    private MatchSimulation sim;
+    private Player p1;
+    private Player p2;
+
+    private MatchSimulation match;
+    private AIController ai1;
+    private AIController ai2;
+    private Random rng;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sim = new MatchSimulation("Katana", "Axe", 800, 600);
+        sim.skipCountdown();
+        p1 = sim.getPlayer1();
+        p2 = sim.getPlayer2();
+
+        // both start a basic attack next to each other
+        p1.setX(380);
+        p2.setX(400);
+        sim.step(InputSnapshot.of(InputSnapshot.BASIC, InputSnapshot.NONE),
+                 InputSnapshot.of(InputSnapshot.BASIC, InputSnapshot.NONE));
+
+        rng = new Random(42);
+        newMatch();
+    }
+
+    private void newMatch() {
+        match = new MatchSimulation("Scythe", "Katana", 800, 600);
+        match.skipCountdown();
+        ai1 = new AIController(match.getPlayer1(), match.getPlayer2(), rng);
+        ai2 = new AIController(match.getPlayer2(), match.getPlayer1(), rng);
+    }
+
+    @Benchmark
+    public void handleCombat() {
+        sim.handleCombat();
+    }
+
+    @Benchmark
+    public int checkPlayerCollision() {
+        p1.setX(380);
+        p2.setX(400);
+        sim.checkPlayerCollision(p1, p2);
+        return p1.getX();
+    }
+
+    @Benchmark
+    public int step() {
+        if (match.isGameOver()) newMatch(); // allocates, but only once per finished match
+
+        ai1.maybeThink();
+        ai2.maybeThink();
+        match.step(ai1.nextInput(), ai2.nextInput());
+        return match.getTick();
+    }
+}
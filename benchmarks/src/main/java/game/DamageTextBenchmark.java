@@ -0,0 +1,61 @@
+package game;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * DamageTextBenchmark:
+ * - update(): one tick of move + expire with a steady stream of hits
+ * - draw(): the popups into an offscreen image
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class DamageTextBenchmark {
+
+    // a new hit every few ticks keeps LIFETIME_TICKS / spawnEvery popups alive
+    @Param({"2", "8"})
+    public int spawnEvery;
+
+    private DamageTextPool pool;
+    private int tick;
+
+    private BufferedImage image;
+    private Graphics2D g2;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        pool = new DamageTextPool(64);
+        for (int i = 0; i < DamageTextPool.LIFETIME_TICKS; i++) updateAndSpawn();
+
+        image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        g2 = image.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        g2.dispose();
+    }
+
+    @Benchmark
+    public int update() {
+        updateAndSpawn();
+        return pool.size();
+    }
+
+    @Benchmark
+    public void draw() {
+        pool.draw(g2);
+    }
+
+    private void updateAndSpawn() {
+        if (tick++ % spawnEvery == 0) pool.spawn(400 + (tick & 63), 300, 10 + (tick & 15));
+        pool.update();
+    }
+}
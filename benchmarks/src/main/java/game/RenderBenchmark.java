@@ -0,0 +1,56 @@
+package game;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * RenderBenchmark:
+ * - one full GamePanel.paintComponent() into an 800x600 offscreen image, mid-match
+ * - the panel is built without its game thread, the benchmark drives update() itself
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+
+    private GamePanel panel;
+    private BufferedImage image;
+    private Graphics2D g2;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SpriteRepository.awaitLoaded();
+
+        panel = new GamePanel("Katana", "Scythe", true, null, false);
+        panel.setSize(800, 600);
+        panel.startMatch();
+
+        // past the countdown so players, HUD and AI are all live
+        for (int i = 0; i < 5 * MatchSimulation.TICK_RATE; i++) panel.update();
+
+        image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        g2 = image.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        g2.dispose();
+    }
+
+    @Benchmark
+    public void paintComponent() {
+        panel.paintComponent(g2);
+    }
+
+    @Benchmark
+    public void updateAndPaint() {
+        panel.update();
+        panel.paintComponent(g2);
+    }
+}